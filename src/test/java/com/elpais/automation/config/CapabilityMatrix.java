@@ -0,0 +1,90 @@
+package com.elpais.automation.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import java.util.ArrayList;
+import java.util.List;
+
+// Capability matrix for parallel runs, expanded through BrowserStackConfig
+public class CapabilityMatrix {
+    private static final Logger logger = LogManager.getLogger(CapabilityMatrix.class);
+
+    // Same combinations as the testng.xml blocks
+    private static final String DEFAULT_MATRIX = "chrome:latest:Windows:11:1920x1080;"
+            + "firefox:latest:Windows:11:1920x1080;"
+            + "safari:latest:OS X:Monterey:1920x1080;"
+            + "mobile:Samsung Galaxy S21:12.0:chrome;"
+            + "mobile:iPhone 14:16:safari";
+
+    private CapabilityMatrix() {
+    }
+
+    // Parse matrix.entries: desktop entries are browser:version:os:osVersion:resolution,
+    // mobile entries are mobile:device:osVersion:browser; entries are separated by ';'
+    public static List<Entry> load() {
+        return parse(ConfigManager.get("matrix.entries", DEFAULT_MATRIX));
+    }
+
+    public static List<Entry> parse(String matrix) {
+        List<Entry> entries = new ArrayList<>();
+        for (String raw : matrix.split(";")) {
+            String[] parts = raw.trim().split("\\s*:\\s*");
+            if (parts.length == 4 && "mobile".equalsIgnoreCase(parts[0])) {
+                entries.add(Entry.mobile(parts[1], parts[2], parts[3]));
+            } else if (parts.length == 5) {
+                entries.add(Entry.desktop(parts[0], parts[1], parts[2], parts[3], parts[4]));
+            } else if (!raw.trim().isEmpty()) {
+                logger.warn("Ignoring malformed matrix entry: {}", raw);
+            }
+        }
+        return entries;
+    }
+
+    // One capability set of the matrix
+    public static class Entry {
+        public String browserName;
+        public String browserVersion;
+        public String os;
+        public String osVersion;
+        public String resolution;
+        public String device;
+
+        public static Entry desktop(String browserName, String browserVersion, String os,
+                                    String osVersion, String resolution) {
+            Entry entry = new Entry();
+            entry.browserName = browserName;
+            entry.browserVersion = browserVersion;
+            entry.os = os;
+            entry.osVersion = osVersion;
+            entry.resolution = resolution;
+            return entry;
+        }
+
+        public static Entry mobile(String device, String osVersion, String browserName) {
+            Entry entry = new Entry();
+            entry.device = device;
+            entry.osVersion = osVersion;
+            entry.browserName = browserName;
+            return entry;
+        }
+
+        public boolean isMobile() {
+            return device != null && !device.isEmpty();
+        }
+
+        public DesiredCapabilities toCapabilities(BrowserStackConfig config) {
+            if (isMobile()) {
+                return config.buildMobileCapabilities(device, osVersion, browserName);
+            }
+            return config.buildCapabilities(browserName, browserVersion, os, osVersion, resolution);
+        }
+
+        @Override
+        public String toString() {
+            return isMobile()
+                    ? device + " " + osVersion + " (" + browserName + ")"
+                    : browserName + " " + browserVersion + " on " + os + " " + osVersion;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.elpais.automation.drivers;
+
+import com.elpais.automation.config.ConfigManager;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Warm HTTP cache for local Chrome runs: a template cache directory is cloned for each worker on start,
+// the warmest clone is promoted back to the template on release, and the template is capped in size
+public class ChromeProfileManager {
+    private static final Logger logger = LogManager.getLogger(ChromeProfileManager.class);
+    private static final ThreadLocal<Path> pendingProfile = new ThreadLocal<>();
+    private static final Map<WebDriver, Path> workerProfiles = new ConcurrentHashMap<>();
+
+    // Chrome lock files must never be copied between running instances
+    private static final List<String> LOCK_FILES =
+            List.of("SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile", "LOCK");
+
+    private ChromeProfileManager() {
+    }
+
+    // Whether the reusable profile mode is enabled
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("chrome.profile.reuse", false);
+    }
+
+    // Clone the template cache into a fresh worker profile and point Chrome at it.
+    // Profile state (cookies, storage) starts clean; only the disk cache is carried over.
+    public static void applyTo(ChromeOptions options) {
+        Path template = getTemplateDir();
+        Path worker = getWorkersDir().resolve("worker-" + Thread.currentThread().getId() + "-" + UUID.randomUUID());
+
+        try {
+            Files.createDirectories(worker);
+            Path workerCache = worker.resolve("cache");
+            cloneTemplate(template, workerCache);
+            pendingProfile.set(worker);
+
+            options.addArguments("--user-data-dir=" + worker.resolve("profile").toAbsolutePath());
+            options.addArguments("--disk-cache-dir=" + workerCache.toAbsolutePath());
+            options.addArguments("--disk-cache-size=" + getMaxCacheBytes());
+            logger.info("Chrome worker profile {} cloned from template ({} KB)",
+                    worker.getFileName(), sizeOf(workerCache) / 1024);
+        } catch (IOException e) {
+            logger.warn("Could not prepare worker profile, using a throwaway profile: {}", e.getMessage());
+            deleteQuietly(worker);
+        }
+    }
+
+    // Copy the template under the same lock as promote, so a worker never sees it half replaced
+    private static synchronized void cloneTemplate(Path template, Path workerCache) throws IOException {
+        if (Files.isDirectory(template)) {
+            FileUtils.copyDirectory(template.toFile(), workerCache.toFile(),
+                    file -> !LOCK_FILES.contains(file.getName()));
+        }
+    }
+
+    // Associate the profile prepared on this thread with the driver started from it;
+    // a null driver (failed start) discards the clone
+    public static void bind(WebDriver driver) {
+        Path worker = pendingProfile.get();
+        pendingProfile.remove();
+        if (worker == null) {
+            return;
+        }
+        if (driver == null) {
+            deleteQuietly(worker);
+        } else {
+            workerProfiles.put(driver, worker);
+        }
+    }
+
+    // Called after the driver has quit: promote the worker cache if it is warmer than the template,
+    // trim the template and delete the worker clone
+    public static void release(WebDriver driver) {
+        Path worker = workerProfiles.remove(driver);
+        if (worker == null) {
+            return;
+        }
+
+        try {
+            promote(worker.resolve("cache"));
+        } catch (IOException e) {
+            logger.warn("Could not promote worker cache: {}", e.getMessage());
+        } finally {
+            deleteQuietly(worker);
+        }
+    }
+
+    // Replace the template with the worker cache when it holds meaningfully more. The copy and trim go
+    // to a staging directory outside the lock; only the swap is done under it, so clones are not held up.
+    private static void promote(Path workerCache) throws IOException {
+        Path template = getTemplateDir();
+        if (!isWarmer(sizeOf(workerCache), sizeOf(template))) {
+            return;
+        }
+
+        Path staging = template.resolveSibling(template.getFileName() + ".staging-" + UUID.randomUUID());
+        try {
+            FileUtils.copyDirectory(workerCache.toFile(), staging.toFile(),
+                    file -> !LOCK_FILES.contains(file.getName()));
+            trim(staging, getMaxCacheBytes());
+
+            long stagedSize = sizeOf(staging);
+            Path previous = swapTemplate(template, staging, stagedSize);
+            if (previous != null) {
+                logger.info("Promoted worker cache to template ({} KB)", stagedSize / 1024);
+                deleteQuietly(previous);
+            }
+        } finally {
+            deleteQuietly(staging);
+        }
+    }
+
+    // Move the staged cache in place of the template unless another worker promoted a warmer one meanwhile;
+    // returns the directory holding the previous template (to delete outside the lock), or null if skipped
+    private static synchronized Path swapTemplate(Path template, Path staging, long stagedSize) throws IOException {
+        if (!isWarmer(stagedSize, sizeOf(template))) {
+            return null;
+        }
+        Path previous = template.resolveSibling(template.getFileName() + ".old-" + UUID.randomUUID());
+        if (Files.exists(template)) {
+            Files.move(template, previous);
+        }
+        Files.move(staging, template);
+        return previous;
+    }
+
+    // Promoting copies the whole cache, so it must grow the template by at least promoteMinGrowthPercent
+    private static boolean isWarmer(long workerSize, long templateSize) {
+        long minGrowth = templateSize * ConfigManager.getLong("chrome.profile.promoteMinGrowthPercent", 10) / 100;
+        return workerSize > 0 && workerSize > templateSize + minGrowth;
+    }
+
+    // Maintenance: delete least recently modified cache files until the directory fits the cap
+    public static synchronized void trimCache(Path cacheDir, long maxBytes) throws IOException {
+        trim(cacheDir, maxBytes);
+    }
+
+    private static void trim(Path cacheDir, long maxBytes) throws IOException {
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(cacheDir)) {
+            files = walk.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                    .collect(Collectors.toList());
+        }
+
+        long total = files.stream().mapToLong(path -> path.toFile().length()).sum();
+        int removed = 0;
+        for (Path file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            // Chrome discards the whole cache when its index is missing or inconsistent
+            if (isIndexFile(cacheDir.relativize(file))) {
+                continue;
+            }
+            total -= file.toFile().length();
+            Files.deleteIfExists(file);
+            removed++;
+        }
+
+        if (removed > 0) {
+            logger.info("Trimmed {} cache files, cache now {} KB", removed, total / 1024);
+        }
+    }
+
+    // The index file and everything under index-dir (the simple cache keeps the-real-index there)
+    private static boolean isIndexFile(Path relative) {
+        for (Path part : relative) {
+            if (part.toString().equals("index-dir")) {
+                return true;
+            }
+        }
+        return relative.getFileName().toString().startsWith("index");
+    }
+
+    private static long sizeOf(Path dir) {
+        File file = dir.toFile();
+        return file.isDirectory() ? FileUtils.sizeOfDirectory(file) : 0;
+    }
+
+    private static void deleteQuietly(Path dir) {
+        FileUtils.deleteQuietly(dir.toFile());
+    }
+
+    private static Path getTemplateDir() {
+        return Paths.get(ConfigManager.get("chrome.profile.templateDir", "./browser-profiles/template"));
+    }
+
+    private static Path getWorkersDir() {
+        return Paths.get(ConfigManager.get("chrome.profile.workDir", "./browser-profiles/workers"));
+    }
+
+    private static long getMaxCacheBytes() {
+        return ConfigManager.getLong("chrome.profile.cacheMaxMb", 512) * 1024 * 1024;
+    }
+}
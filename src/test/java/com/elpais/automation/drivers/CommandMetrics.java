@@ -0,0 +1,251 @@
+package com.elpais.automation.drivers;
+
+import com.elpais.automation.config.ConfigManager;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Command-level latency instrumentation: counts and latency histograms of every WebDriver call,
+// tagged by the page-object method (or test method) that issued it
+public class CommandMetrics implements WebDriverListener {
+    private static final Logger logger = LogManager.getLogger(CommandMetrics.class);
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    private static final String PROJECT_PACKAGE = "com.elpais.automation.";
+    private static final String PAGES_PACKAGE = PROJECT_PACKAGE + "pages.";
+    private static final String DRIVERS_PACKAGE = PROJECT_PACKAGE + "drivers.";
+
+    // Histogram bucket upper bounds in milliseconds; the last bucket is open-ended
+    private static final long[] BUCKETS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private static final Map<Class<?>, String> TARGET_TYPES = new LinkedHashMap<>();
+
+    static {
+        TARGET_TYPES.put(WebElement.class, "WebElement");
+        TARGET_TYPES.put(WebDriver.Navigation.class, "Navigation");
+        TARGET_TYPES.put(WebDriver.TargetLocator.class, "TargetLocator");
+        TARGET_TYPES.put(WebDriver.Options.class, "Options");
+        TARGET_TYPES.put(WebDriver.Timeouts.class, "Timeouts");
+        TARGET_TYPES.put(WebDriver.Window.class, "Window");
+        TARGET_TYPES.put(Alert.class, "Alert");
+    }
+
+    private final Map<String, CommandStats> stats = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // Whether drivers handed out by DriverManager are wrapped with the instrumentation
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("feature.commandMetrics", false);
+    }
+
+    // Wrap a driver so every call on it, and on the elements and helpers it returns, is recorded
+    public WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(this).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        record(target, method, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        record(target, method, true);
+    }
+
+    private void record(Object target, Method method, boolean failed) {
+        Long start = startTimes.get().poll();
+        if (start == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        String command = commandName(target, method);
+        String caller = findCaller();
+        stats.computeIfAbsent(caller + " " + command, key -> new CommandStats(caller, command))
+                .record(nanos, failed);
+    }
+
+    // Write the recorded metrics as JSON under results.path and log the most expensive commands
+    public Path dump(String testName) {
+        List<CommandStats> sorted = new ArrayList<>(stats.values());
+        sorted.sort(Comparator.comparingLong((CommandStats s) -> s.totalNanos).reversed());
+
+        long totalCommands = sorted.stream().mapToLong(s -> s.count).sum();
+        long totalNanos = sorted.stream().mapToLong(s -> s.totalNanos).sum();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("test", testName);
+        report.put("recordedAt", System.currentTimeMillis());
+        report.put("totalCommands", totalCommands);
+        report.put("totalMillis", totalNanos / 1_000_000);
+        List<Map<String, Object>> commands = new ArrayList<>();
+        for (CommandStats commandStats : sorted) {
+            commands.add(commandStats.toReport());
+        }
+        report.put("commands", commands);
+
+        logger.info("Command metrics for {}: {} commands, {} ms", testName, totalCommands, totalNanos / 1_000_000);
+        sorted.stream().limit(5).forEach(s -> logger.info("  {} {}: {} calls, {} ms total, max {} ms",
+                s.caller, s.command, s.count, s.totalNanos / 1_000_000, s.maxNanos / 1_000_000));
+
+        Path file = Paths.get(ConfigManager.get("results.path", "./results"), "command-metrics",
+                testName + "_" + System.currentTimeMillis() + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                gson.toJson(report, writer);
+            }
+            logger.info("Command metrics saved: {}", file);
+            return file;
+        } catch (Exception e) {
+            logger.warn("Could not write command metrics {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    // "findElement" for driver calls, "WebElement.getAttribute", "Navigation.to" and so on for the rest
+    private static String commandName(Object target, Method method) {
+        if (!(target instanceof WebDriver)) {
+            for (Map.Entry<Class<?>, String> type : TARGET_TYPES.entrySet()) {
+                if (type.getKey().isInstance(target)) {
+                    return type.getValue() + "." + method.getName();
+                }
+            }
+        }
+        return method.getName();
+    }
+
+    // The outermost page-object frame, i.e. the page method the test called; falls back to the
+    // nearest project frame outside the drivers package (test methods, utilities)
+    private static String findCaller() {
+        return walker.walk(frames -> {
+            String page = null;
+            String project = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (className.startsWith(PAGES_PACKAGE)) {
+                    page = describe(frame);
+                } else if (project == null && className.startsWith(PROJECT_PACKAGE)
+                        && !className.startsWith(DRIVERS_PACKAGE)) {
+                    project = describe(frame);
+                }
+            }
+            if (page != null) {
+                return page;
+            }
+            return project != null ? project : "unattributed";
+        });
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int nested = simpleName.indexOf('$');
+        if (nested > 0) {
+            simpleName = simpleName.substring(0, nested);
+        }
+
+        // lambda$getTopArticles$0 -> getTopArticles
+        String methodName = frame.getMethodName();
+        if (methodName.startsWith("lambda$")) {
+            String[] parts = methodName.split("\\$");
+            methodName = parts.length > 1 ? parts[1] : methodName;
+        }
+        return simpleName + "." + methodName;
+    }
+
+    // Count, errors, totals and latency histogram for one caller/command pair
+    private static class CommandStats {
+        private final String caller;
+        private final String command;
+        private final long[] histogram = new long[BUCKETS_MS.length + 1];
+        private long count;
+        private long errors;
+        private long totalNanos;
+        private long maxNanos;
+
+        CommandStats(String caller, String command) {
+            this.caller = caller;
+            this.command = command;
+        }
+
+        synchronized void record(long nanos, boolean failed) {
+            count++;
+            if (failed) {
+                errors++;
+            }
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+
+            long millis = nanos / 1_000_000;
+            int bucket = 0;
+            while (bucket < BUCKETS_MS.length && millis > BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            histogram[bucket]++;
+        }
+
+        synchronized Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("caller", caller);
+            report.put("command", command);
+            report.put("count", count);
+            report.put("errors", errors);
+            report.put("totalMillis", totalNanos / 1_000_000.0);
+            report.put("meanMillis", count > 0 ? totalNanos / 1_000_000.0 / count : 0);
+            report.put("maxMillis", maxNanos / 1_000_000.0);
+            report.put("p50Millis", percentileUpperBound(0.50));
+            report.put("p95Millis", percentileUpperBound(0.95));
+
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < histogram.length; i++) {
+                if (histogram[i] > 0) {
+                    buckets.put(i < BUCKETS_MS.length ? "<=" + BUCKETS_MS[i] : ">" + BUCKETS_MS[BUCKETS_MS.length - 1],
+                            histogram[i]);
+                }
+            }
+            report.put("histogramMillis", buckets);
+            return report;
+        }
+
+        // Upper bound of the bucket holding the percentile; the open bucket reports the observed max
+        private double percentileUpperBound(double percentile) {
+            long threshold = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS_MS.length; i++) {
+                seen += histogram[i];
+                if (seen >= threshold) {
+                    return Math.min(BUCKETS_MS[i], maxNanos / 1_000_000.0);
+                }
+            }
+            return maxNanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.elpais.automation.drivers;
+
+import com.elpais.automation.config.ConfigManager;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+// Resolves driver binaries once per JVM and persists the browser-to-driver mapping on disk,
+// so later runs start without a browser-version probe or any network access
+public class DriverBinaryResolver {
+    private static final Logger logger = LogManager.getLogger(DriverBinaryResolver.class);
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<String, String> resolvedThisJvm = new HashMap<>();
+
+    private DriverBinaryResolver() {
+    }
+
+    // Make sure the driver binary for the browser is known to Selenium; returns the driver path
+    public static synchronized String resolve(String browserName) {
+        String browser = browserName.toLowerCase();
+        String resolved = resolvedThisJvm.get(browser);
+        if (resolved != null) {
+            return resolved;
+        }
+
+        long start = System.currentTimeMillis();
+        Map<String, CachedDriver> cache = load();
+        CachedDriver cached = cache.get(browser);
+        String source;
+
+        if (isUsable(cached)) {
+            source = "disk cache";
+        } else if (ConfigManager.getBoolean("driver.cache.offline", false)) {
+            throw new IllegalStateException("No cached " + browser + " driver in " + getCacheFile()
+                    + " and offline driver resolution is enabled");
+        } else {
+            cached = resolveWithWebDriverManager(browser);
+            cache.put(browser, cached);
+            save(cache);
+            source = "WebDriverManager";
+        }
+
+        System.setProperty(getDriverProperty(browser), cached.driverPath);
+        resolvedThisJvm.put(browser, cached.driverPath);
+        logger.info("Resolved {} driver {} from {} in {} ms: {}", browser, cached.driverVersion, source,
+                System.currentTimeMillis() - start, cached.driverPath);
+        return cached.driverPath;
+    }
+
+    // A cached entry is usable while the driver file exists and the browser binary has not changed
+    private static boolean isUsable(CachedDriver cached) {
+        if (cached == null || cached.driverPath == null || !Files.isExecutable(Paths.get(cached.driverPath))) {
+            return false;
+        }
+        if (cached.browserPath != null) {
+            Path browserPath = Paths.get(cached.browserPath);
+            if (!Files.exists(browserPath) || browserPath.toFile().lastModified() != cached.browserModified) {
+                logger.info("Browser binary {} changed since the driver was cached", cached.browserPath);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CachedDriver resolveWithWebDriverManager(String browser) {
+        WebDriverManager manager;
+        switch (browser) {
+            case "chrome":
+                manager = WebDriverManager.chromedriver();
+                break;
+            case "firefox":
+                manager = WebDriverManager.firefoxdriver();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+        manager.setup();
+
+        CachedDriver cached = new CachedDriver();
+        cached.driverPath = manager.getDownloadedDriverPath();
+        cached.driverVersion = manager.getDownloadedDriverVersion();
+        cached.resolvedAt = System.currentTimeMillis();
+        manager.getBrowserPath().ifPresent(path -> {
+            cached.browserPath = path.toAbsolutePath().toString();
+            cached.browserModified = path.toFile().lastModified();
+        });
+        return cached;
+    }
+
+    private static String getDriverProperty(String browser) {
+        return "firefox".equals(browser) ? "webdriver.gecko.driver" : "webdriver.chrome.driver";
+    }
+
+    private static Map<String, CachedDriver> load() {
+        Path file = getCacheFile();
+        if (!Files.exists(file)) {
+            return new HashMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, CachedDriver> cache =
+                    gson.fromJson(reader, new TypeToken<Map<String, CachedDriver>>() { }.getType());
+            return cache != null ? cache : new HashMap<>();
+        } catch (Exception e) {
+            logger.warn("Unreadable driver cache {}: {}", file, e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private static void save(Map<String, CachedDriver> cache) {
+        Path file = getCacheFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                gson.toJson(cache, writer);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not persist driver cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Path getCacheFile() {
+        return Paths.get(ConfigManager.get("driver.cache.file", "./.driver-cache/drivers.json"));
+    }
+
+    // Persisted browser-to-driver mapping entry
+    private static class CachedDriver {
+        String driverPath;
+        String driverVersion;
+        String browserPath;
+        long browserModified;
+        long resolvedAt;
+    }
+}
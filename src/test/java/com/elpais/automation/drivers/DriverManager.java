@@ -3,14 +3,27 @@ package com.elpais.automation.drivers;
 import com.elpais.automation.config.ConfigManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
 import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 // Thread-safe WebDriver manager using ThreadLocal pattern
 public class DriverManager {
     private static final Logger logger = LogManager.getLogger(DriverManager.class);
     private static final ThreadLocal<WebDriver> threadLocalDriver = new ThreadLocal<>();
+    // The undecorated session behind threadLocalDriver; pooling and cleanup are keyed by it
+    private static final ThreadLocal<WebDriver> threadLocalSession = new ThreadLocal<>();
+    private static final ThreadLocal<CommandMetrics> threadLocalMetrics = new ThreadLocal<>();
+    private static DriverPool pool;
 
     private DriverManager() {
     }
@@ -18,12 +31,47 @@ public class DriverManager {
     // Initialize WebDriver based on environment and browser parameters
     public static void initializeDriver(String env, String browserName, String browserVersion,
                                        String os, String osVersion, String resolution) {
-        try {
-            // Increase Selenium's internal HTTP client timeout for remote execution
-            System.setProperty("webdriver.http.factory", "jdk-http-client");
-            System.setProperty("jdk.httpclient.connectionTimeout", "120000");
-            System.setProperty("jdk.httpclient.receiveTimeout", "120000");
+        String key = String.join("|", env, browserName, browserVersion, os, osVersion, resolution);
+        WebDriver driver = obtainDriver(key,
+                () -> createDriver(env, browserName, browserVersion, os, osVersion, resolution));
+
+        bindDriver(driver);
+        logger.info("WebDriver initialized successfully for thread: {}", Thread.currentThread().getId());
+    }
 
+    // Initialize WebDriver for mobile testing
+    public static void initializeMobileDriver(String device, String osVersion, String browserName) {
+        String key = String.join("|", "mobile", device, osVersion, browserName);
+        WebDriver driver = obtainDriver(key, () -> createMobileDriver(device, osVersion, browserName));
+
+        bindDriver(driver);
+        logger.info("Mobile WebDriver initialized for thread: {}", Thread.currentThread().getId());
+    }
+
+    // Lease from the pool when pooling is enabled, otherwise create a dedicated session
+    private static WebDriver obtainDriver(String key, Supplier<WebDriver> factory) {
+        if (isPoolEnabled()) {
+            return getPool().lease(key, factory);
+        }
+        return factory.get();
+    }
+
+    // Hand the session to the current thread, wrapped with command metrics when enabled
+    private static void bindDriver(WebDriver driver) {
+        threadLocalSession.set(driver);
+        if (CommandMetrics.isEnabled()) {
+            CommandMetrics metrics = new CommandMetrics();
+            threadLocalMetrics.set(metrics);
+            threadLocalDriver.set(metrics.decorate(driver));
+        } else {
+            threadLocalDriver.set(driver);
+        }
+    }
+
+    private static WebDriver createDriver(String env, String browserName, String browserVersion,
+                                          String os, String osVersion, String resolution) {
+        try {
+            long start = System.currentTimeMillis();
             WebDriver driver;
 
             if ("browserstack".equalsIgnoreCase(env)) {
@@ -31,48 +79,98 @@ public class DriverManager {
             } else {
                 driver = WebDriverFactory.createLocalDriver(browserName);
             }
+            long created = System.currentTimeMillis();
+            configureSession(driver, "mobile".equalsIgnoreCase(browserName));
 
-            // Set timeouts
-            int implicitTimeout = ConfigManager.getInt("app.timeout.implicit", 10);
-            int pageLoadTimeout = ConfigManager.getInt("app.timeout.pageLoad", 20);
-
-            driver.manage().timeouts().implicitlyWait(implicitTimeout, TimeUnit.SECONDS);
-            driver.manage().timeouts().pageLoadTimeout(pageLoadTimeout, TimeUnit.SECONDS);
-
-            // Maximize window for desktop browsers
-            if (!"mobile".equalsIgnoreCase(browserName)) {
-                driver.manage().window().maximize();
-            }
-
-            threadLocalDriver.set(driver);
-            logger.info("WebDriver initialized successfully for thread: {}", Thread.currentThread().getId());
+            logger.info("Startup time: {} ms total (session creation {} ms, timeouts and window {} ms)",
+                    System.currentTimeMillis() - start, created - start, System.currentTimeMillis() - created);
+            return driver;
         } catch (MalformedURLException e) {
             logger.error("Failed to initialize WebDriver", e);
             throw new RuntimeException("WebDriver initialization failed", e);
         }
     }
 
-    // Initialize WebDriver for mobile testing
-    public static void initializeMobileDriver(String device, String osVersion, String browserName) {
+    private static WebDriver createMobileDriver(String device, String osVersion, String browserName) {
         try {
-            // Increase Selenium's internal HTTP client timeout for remote execution
-            System.setProperty("webdriver.http.factory", "jdk-http-client");
-            System.setProperty("jdk.httpclient.connectionTimeout", "120000");
-            System.setProperty("jdk.httpclient.receiveTimeout", "120000");
-
             WebDriver driver = WebDriverFactory.createRemoteMobileDriver(device, osVersion, browserName);
-
-            int implicitTimeout = ConfigManager.getInt("app.timeout.implicit", 10);
-            driver.manage().timeouts().implicitlyWait(implicitTimeout, TimeUnit.SECONDS);
-
-            threadLocalDriver.set(driver);
-            logger.info("Mobile WebDriver initialized for thread: {}", Thread.currentThread().getId());
+            configureSession(driver, true);
+            return driver;
         } catch (MalformedURLException e) {
             logger.error("Failed to initialize mobile WebDriver", e);
             throw new RuntimeException("Mobile WebDriver initialization failed", e);
         }
     }
 
+    // Create a remote session configured like every other session but not bound to the current thread;
+    // the caller owns it and ends it with closeSession (used by the capability-matrix scheduler)
+    public static WebDriver createSession(URL hubUrl, DesiredCapabilities caps, boolean mobile) {
+        WebDriver driver = WebDriverFactory.createRemoteDriver(hubUrl, caps);
+        try {
+            configureSession(driver, mobile);
+        } catch (RuntimeException e) {
+            disposeDriver(driver);
+            throw e;
+        }
+        return driver;
+    }
+
+    // Quit a session created with createSession
+    public static void closeSession(WebDriver driver) {
+        disposeDriver(driver);
+    }
+
+    // Timeouts for every session; desktop sessions also get a page load timeout and a maximized window
+    private static void configureSession(WebDriver driver, boolean mobile) {
+        driver.manage().timeouts().implicitlyWait(getImplicitTimeout(), TimeUnit.SECONDS);
+        if (!mobile) {
+            driver.manage().timeouts().pageLoadTimeout(ConfigManager.getInt("app.timeout.pageLoad", 20), TimeUnit.SECONDS);
+        }
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(getScriptTimeout()));
+        if (!mobile) {
+            driver.manage().window().maximize();
+        }
+    }
+
+    private static boolean isPoolEnabled() {
+        return ConfigManager.getBoolean("driver.pool.enabled", false);
+    }
+
+    // Lazily create the pool and quit its sessions when the JVM exits
+    private static synchronized DriverPool getPool() {
+        if (pool == null) {
+            List<String> storageOrigins = Arrays.stream(ConfigManager.get("driver.pool.storageOrigins", "https://elpais.com")
+                            .split(","))
+                    .map(String::trim)
+                    .filter(origin -> !origin.isEmpty())
+                    .collect(Collectors.toList());
+            pool = new DriverPool(ConfigManager.getInt("driver.pool.maxUses", 20), DriverManager::disposeDriver,
+                    storageOrigins);
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "driver-pool-shutdown"));
+        }
+        return pool;
+    }
+
+    // Implicit wait in seconds; zero when page objects rely on explicit, budgeted lookups instead. The
+    // locator registry splits fallback chains into single strategies, so it needs zero as well: each
+    // strategy that misses would otherwise wait out the implicit timeout.
+    private static int getImplicitTimeout() {
+        if (ConfigManager.getBoolean("feature.zeroImplicitWait", false)) {
+            logger.info("Zero implicit wait mode enabled");
+            return 0;
+        }
+        if (ConfigManager.getBoolean("feature.locatorRegistry", false)) {
+            logger.info("Zero implicit wait mode enabled for the locator registry");
+            return 0;
+        }
+        return ConfigManager.getInt("app.timeout.implicit", 10);
+    }
+
+    // Async script timeout in seconds; must outlast the in-page waits run through executeAsyncScript
+    private static int getScriptTimeout() {
+        return ConfigManager.getInt("app.timeout.script", 60);
+    }
+
     // Get WebDriver instance for current thread
     public static WebDriver getDriver() {
         WebDriver driver = threadLocalDriver.get();
@@ -82,36 +180,77 @@ public class DriverManager {
         return driver;
     }
 
-    // Close and remove WebDriver for current thread
+    // Whether a WebDriver is running for the current thread
+    public static boolean hasDriver() {
+        return threadLocalDriver.get() != null;
+    }
+
+    // Close and remove WebDriver for current thread; in pooled mode the session is reset and returned
     public static void quitDriver() {
-        WebDriver driver = threadLocalDriver.get();
+        releaseDriver(false);
+    }
+
+    // Like quitDriver, but a pooled session is recycled instead of reused (call after a test error)
+    public static void discardDriver() {
+        releaseDriver(true);
+    }
+
+    // Write the command metrics recorded for the current thread's driver; no-op when metrics are disabled
+    public static void saveCommandMetrics(String testName) {
+        CommandMetrics metrics = threadLocalMetrics.get();
+        if (metrics != null) {
+            metrics.dump(testName);
+        }
+    }
+
+    private static void releaseDriver(boolean broken) {
+        WebDriver driver = threadLocalSession.get();
         if (driver != null) {
             try {
-                driver.quit();
-                logger.info("WebDriver closed for thread: {}", Thread.currentThread().getId());
-            } catch (Exception e) {
-                logger.error("Error closing WebDriver", e);
+                if (isPoolEnabled()) {
+                    getPool().release(driver, broken);
+                    logger.info("WebDriver released to pool for thread: {}", Thread.currentThread().getId());
+                } else {
+                    disposeDriver(driver);
+                }
             } finally {
                 threadLocalDriver.remove();
+                threadLocalSession.remove();
+                threadLocalMetrics.remove();
             }
         }
     }
 
-    // Take screenshot and save to file
+    // Quit the session and clean up everything attached to it
+    private static void disposeDriver(WebDriver driver) {
+        try {
+            LeanBrowsingProfile.detach(driver);
+            RemoteTransport.logSessionLatency(driver);
+            driver.quit();
+            logger.info("WebDriver closed for thread: {}", Thread.currentThread().getId());
+        } catch (Exception e) {
+            logger.error("Error closing WebDriver", e);
+        } finally {
+            ChromeProfileManager.release(driver);
+        }
+    }
+
+    // Capture a screenshot and hand it to the background writer; returns the path it will be written to
     public static String takeScreenshot(String testName) {
         WebDriver driver = getDriver();
-        if (driver instanceof org.openqa.selenium.TakesScreenshot) {
+        if (driver instanceof TakesScreenshot) {
             try {
-                String screenshotPath = "./screenshots/" + testName + "_" + System.currentTimeMillis() + ".png";
-                java.io.File screenshotFile = ((org.openqa.selenium.TakesScreenshot) driver)
-                        .getScreenshotAs(org.openqa.selenium.OutputType.FILE);
-                org.apache.commons.io.FileUtils.copyFile(screenshotFile, new java.io.File(screenshotPath));
-                logger.info("Screenshot saved: {}", screenshotPath);
-                return screenshotPath;
+                byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                return ScreenshotWriter.submit(testName, png);
             } catch (Exception e) {
                 logger.error("Failed to take screenshot", e);
             }
         }
         return "";
     }
+
+    // Take a screenshot at test teardown if the screenshot policy asks for one
+    public static String takeScreenshot(String testName, boolean failed) {
+        return ScreenshotWriter.shouldCapture(failed) ? takeScreenshot(testName) : "";
+    }
 }
@@ -0,0 +1,154 @@
+package com.elpais.automation.drivers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Pool of WebDriver sessions keyed by capability set; sessions are health-checked on lease,
+// reset on release (Chromium only) and recycled after a number of uses, on error or when they
+// cannot be reset
+public class DriverPool {
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+
+    private final Map<String, Deque<PooledDriver>> idle = new ConcurrentHashMap<>();
+    private final Map<WebDriver, PooledDriver> leased = new ConcurrentHashMap<>();
+    private final int maxUses;
+    private final Consumer<WebDriver> disposer;
+    // Origins whose storage is cleared on reset even if no tab is on them any more
+    private final List<String> storageOrigins;
+
+    public DriverPool(int maxUses, Consumer<WebDriver> disposer, List<String> storageOrigins) {
+        this.maxUses = maxUses;
+        this.disposer = disposer;
+        this.storageOrigins = storageOrigins;
+    }
+
+    // Lease a healthy idle session for the key, or create one with the factory
+    public WebDriver lease(String key, Supplier<WebDriver> factory) {
+        Deque<PooledDriver> candidates = idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+
+        PooledDriver pooled;
+        while ((pooled = candidates.pollFirst()) != null) {
+            if (isHealthy(pooled.driver)) {
+                logger.info("Reusing pooled session ({} previous uses) for {}", pooled.uses, key);
+                break;
+            }
+            logger.warn("Discarding unhealthy pooled session for {}", key);
+            disposer.accept(pooled.driver);
+        }
+
+        if (pooled == null) {
+            logger.info("Creating new pooled session for {}", key);
+            pooled = new PooledDriver(key, factory.get());
+        }
+
+        pooled.uses++;
+        leased.put(pooled.driver, pooled);
+        return pooled.driver;
+    }
+
+    // Return a leased session; broken or worn-out sessions are quit instead of reset
+    public void release(WebDriver driver, boolean broken) {
+        PooledDriver pooled = leased.remove(driver);
+        if (pooled == null) {
+            disposer.accept(driver);
+            return;
+        }
+
+        if (broken || pooled.uses >= maxUses || !reset(pooled)) {
+            logger.info("Recycling pooled session after {} uses{}", pooled.uses, broken ? " (error)" : "");
+            disposer.accept(driver);
+            return;
+        }
+
+        idle.computeIfAbsent(pooled.key, k -> new ConcurrentLinkedDeque<>()).offerFirst(pooled);
+    }
+
+    // Quit every pooled session
+    public void shutdown() {
+        List<PooledDriver> all = new ArrayList<>(leased.values());
+        idle.values().forEach(all::addAll);
+        idle.clear();
+        leased.clear();
+
+        for (PooledDriver pooled : all) {
+            disposer.accept(pooled.driver);
+        }
+        if (!all.isEmpty()) {
+            logger.info("Driver pool shut down, {} sessions closed", all.size());
+        }
+    }
+
+    // A session is healthy when it still answers a cheap command
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Drop cookies, storage and extra tabs so the next lease starts clean. Only Chromium can clear
+    // cookies of every site (over CDP); other sessions would keep cookies and storage of origins the
+    // current page cannot reach, such as the consent state, so they are recycled instead.
+    private boolean reset(PooledDriver pooled) {
+        WebDriver driver = pooled.driver;
+        if (!(driver instanceof HasCdp)) {
+            logger.debug("Session cannot clear other origins, not reusing it");
+            return false;
+        }
+        try {
+            Set<String> origins = new LinkedHashSet<>(storageOrigins);
+            for (String handle : driver.getWindowHandles()) {
+                driver.switchTo().window(handle);
+                Object origin = ((JavascriptExecutor) driver).executeScript("return location.origin;");
+                if (origin instanceof String && ((String) origin).startsWith("http")) {
+                    origins.add((String) origin);
+                }
+                if (!handle.equals(pooled.originalHandle)) {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(pooled.originalHandle);
+
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            for (String origin : origins) {
+                cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to reset pooled session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Pooled session with its capability key and use count
+    private static class PooledDriver {
+        private final String key;
+        private final WebDriver driver;
+        // The tab the session was created with; the one kept open on reset
+        private final String originalHandle;
+        private int uses;
+
+        PooledDriver(String key, WebDriver driver) {
+            this.key = key;
+            this.driver = driver;
+            this.originalHandle = driver.getWindowHandle();
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.elpais.automation.drivers;
+
+import com.elpais.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Headless, lean Chrome profile: blocks third-party URL patterns and resource types through DevTools
+// request interception and reports blocked requests per page (and their declared bytes when
+// chrome.lean.measureBlockedBytes intercepts at the response stage)
+public class LeanBrowsingProfile {
+    private static final Logger logger = LogManager.getLogger(LeanBrowsingProfile.class);
+    private static final Map<WebDriver, BlockingSession> sessions = new ConcurrentHashMap<>();
+
+    private static final String DEFAULT_BLOCKED_URLS = "*doubleclick.net*,*googlesyndication.com*,"
+            + "*googletagmanager.com*,*google-analytics.com*,*chartbeat.*,*scorecardresearch.com*,"
+            + "*facebook.net*,*taboola.com*,*outbrain.com*,*amazon-adsystem.com*,*fonts.googleapis.com*,"
+            + "*fonts.gstatic.com*,*dailymotion.com*,*jwplayer*";
+
+    // Path shapes of the resizer URLs that ARTICLE_IMAGE sources use on the image hosts
+    private static final List<String> ARTICLE_IMAGE_PATHS = List.of(
+            "/resizer/v2/ABCDEF0123456789.jpg?auth=0123456789abcdef&width=414&height=233&smart=true",
+            "/resizer/v2/ABCDEF0123456789.png?auth=0123456789abcdef&width=1200&height=675&focal=500%2C300",
+            "/resizer/ABCDEF0123456789=/414x233/filters:focal(500x300:510x310)/"
+                    + "cloudfront-eu-central-1.images.arcpublishing.com/prisa/ABCDEF0123456789.jpg");
+
+    private LeanBrowsingProfile() {
+    }
+
+    // Whether the lean profile is enabled
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("chrome.lean", false);
+    }
+
+    // Browser flags for the lean profile
+    public static void configure(ChromeOptions options) {
+        if (ConfigManager.getBoolean("chrome.lean.headless", true)) {
+            options.addArguments("--headless=new");
+            options.addArguments("--window-size=1920,1080");
+        }
+        options.addArguments("--mute-audio");
+        options.addArguments("--autoplay-policy=user-gesture-required");
+    }
+
+    // Open a DevTools session on the driver and start failing matching requests
+    public static void attach(ChromeDriver driver) {
+        List<String> urlPatterns = getBlockedUrlPatterns();
+        List<String> resourceTypes = getBlockedResourceTypes();
+        boolean measureBytes = ConfigManager.getBoolean("chrome.lean.measureBlockedBytes", false);
+
+        // Response stage exposes Content-Length before the body is transferred, at the cost of the headers
+        String stage = measureBytes ? "Response" : "Request";
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String urlPattern : urlPatterns) {
+            patterns.add(Map.of("urlPattern", urlPattern, "requestStage", stage));
+        }
+        for (String resourceType : resourceTypes) {
+            patterns.add(Map.of("urlPattern", "*", "resourceType", resourceType, "requestStage", stage));
+        }
+
+        try {
+            DevTools devTools = driver.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            BlockingSession session = new BlockingSession(devTools, urlPatterns, measureBytes);
+
+            devTools.addListener(new Event<Map<String, Object>>("Page.frameNavigated",
+                    input -> input.read(Json.MAP_TYPE)), session::onFrameNavigated);
+            devTools.addListener(new Event<Map<String, Object>>("Network.loadingFinished",
+                    input -> input.read(Json.MAP_TYPE)), session::onLoadingFinished);
+            devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused",
+                    input -> input.read(Json.MAP_TYPE)), session::onRequestPaused);
+
+            devTools.send(new Command<>("Page.enable", Map.of()));
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+
+            sessions.put(driver, session);
+            logger.info("Lean browsing enabled: {} URL patterns, resource types {}", urlPatterns.size(), resourceTypes);
+        } catch (Exception e) {
+            logger.warn("Could not enable request blocking, continuing without it: {}", e.getMessage());
+        }
+    }
+
+    // Log per-page blocking stats and release the DevTools session; call before the driver quits
+    public static void detach(WebDriver driver) {
+        BlockingSession session = sessions.remove(driver);
+        if (session == null) {
+            return;
+        }
+        for (Map.Entry<String, PageStats> entry : session.pages.entrySet()) {
+            PageStats stats = entry.getValue();
+            // Requests failed at the request stage have no response headers, so no declared size
+            if (session.measureBytes) {
+                logger.info("Blocked on {}: {} requests, {} KB (declared), {} KB transferred by allowed requests",
+                        entry.getKey(), stats.blockedRequests.get(), stats.blockedBytes.get() / 1024,
+                        stats.transferredBytes.get() / 1024);
+            } else {
+                logger.info("Blocked on {}: {} requests, {} KB transferred by allowed requests",
+                        entry.getKey(), stats.blockedRequests.get(), stats.transferredBytes.get() / 1024);
+            }
+        }
+        try {
+            session.devTools.clearListeners();
+            session.devTools.disconnectSession();
+        } catch (Exception e) {
+            logger.debug("Error closing DevTools session: {}", e.getMessage());
+        }
+    }
+
+    // Blocking stats for the driver's pages, keyed by main-frame URL
+    public static Map<String, PageStats> getStats(WebDriver driver) {
+        BlockingSession session = sessions.get(driver);
+        return session != null ? new LinkedHashMap<>(session.pages) : new HashMap<>();
+    }
+
+    private static List<String> getBlockedUrlPatterns() {
+        List<String> patterns = split(ConfigManager.get("chrome.lean.blockedUrls", DEFAULT_BLOCKED_URLS));
+        List<String> imageHosts = split(ConfigManager.get("chrome.lean.imageHosts", "imagenes.elpais.com"));
+        return patterns.stream().filter(pattern -> {
+            for (String host : imageHosts) {
+                if (blocksHost(pattern, host)) {
+                    logger.warn("Ignoring blocked URL pattern {}: it would block article images on {}", pattern, host);
+                    return false;
+                }
+            }
+            return true;
+        }).collect(Collectors.toList());
+    }
+
+    // Whether the pattern matches every URL on the host, or any URL shaped like an article image there
+    static boolean blocksHost(String pattern, String host) {
+        Pattern regex = toRegex(pattern);
+        for (String scheme : List.of("https://", "http://")) {
+            String root = scheme + host + "/";
+            if (matchesEveryUrlUnder(pattern, root)) {
+                return true;
+            }
+            for (String path : ARTICLE_IMAGE_PATHS) {
+                if (regex.matcher(scheme + host + path).matches()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Run the glob over the prefix; it matches every URL under it if some position it can reach
+    // leaves only wildcards, such as *elpais.com* or https://imagenes.elpais.com/*
+    private static boolean matchesEveryUrlUnder(String glob, String prefix) {
+        Set<Integer> positions = closure(glob, Set.of(0));
+        for (char c : prefix.toCharArray()) {
+            Set<Integer> next = new HashSet<>();
+            for (int i : positions) {
+                if (i >= glob.length()) {
+                    continue;
+                }
+                char g = glob.charAt(i);
+                if (g == '*') {
+                    next.add(i);
+                } else if (g == '?' || g == c) {
+                    next.add(i + 1);
+                }
+            }
+            positions = closure(glob, next);
+        }
+        for (int i : positions) {
+            if (i < glob.length() && glob.substring(i).chars().allMatch(g -> g == '*')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Positions reachable by letting a * match nothing
+    private static Set<Integer> closure(String glob, Set<Integer> positions) {
+        Set<Integer> reachable = new HashSet<>(positions);
+        Deque<Integer> pending = new ArrayDeque<>(positions);
+        while (!pending.isEmpty()) {
+            int i = pending.pop();
+            if (i < glob.length() && glob.charAt(i) == '*' && reachable.add(i + 1)) {
+                pending.push(i + 1);
+            }
+        }
+        return reachable;
+    }
+
+    private static List<String> getBlockedResourceTypes() {
+        List<String> types = split(ConfigManager.get("chrome.lean.blockedTypes", "Media,Font"));
+        if (types.removeIf(type -> type.equalsIgnoreCase("Image"))) {
+            logger.warn("Image resources cannot be blocked, OpinionPage reads article images");
+        }
+        return types;
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split("\\s*,\\s*"))
+                .filter(part -> !part.isEmpty())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // CDP glob (* and ?) to regex
+    private static Pattern toRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    // Per-page counters
+    public static class PageStats {
+        public final AtomicLong blockedRequests = new AtomicLong();
+        public final AtomicLong blockedBytes = new AtomicLong();
+        public final AtomicLong transferredBytes = new AtomicLong();
+    }
+
+    // DevTools session state; listeners run on the CDP connection thread
+    private static class BlockingSession {
+        private final DevTools devTools;
+        private final List<String> urlPatterns;
+        // Intercepting at the response stage, where Content-Length is known
+        private final boolean measureBytes;
+        private final Map<String, PageStats> pages = new ConcurrentHashMap<>();
+        private volatile String currentPage = "about:blank";
+
+        BlockingSession(DevTools devTools, List<String> urlPatterns, boolean measureBytes) {
+            this.devTools = devTools;
+            this.urlPatterns = urlPatterns;
+            this.measureBytes = measureBytes;
+        }
+
+        private PageStats current() {
+            return pages.computeIfAbsent(currentPage, page -> new PageStats());
+        }
+
+        @SuppressWarnings("unchecked")
+        void onFrameNavigated(Map<String, Object> params) {
+            Map<String, Object> frame = (Map<String, Object>) params.get("frame");
+            if (frame != null && frame.get("parentId") == null) {
+                currentPage = String.valueOf(frame.get("url"));
+            }
+        }
+
+        void onLoadingFinished(Map<String, Object> params) {
+            Object length = params.get("encodedDataLength");
+            if (length instanceof Number) {
+                current().transferredBytes.addAndGet(((Number) length).longValue());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void onRequestPaused(Map<String, Object> params) {
+            String requestId = String.valueOf(params.get("requestId"));
+            String resourceType = String.valueOf(params.get("resourceType"));
+            Map<String, Object> request = (Map<String, Object>) params.get("request");
+            String url = request != null ? String.valueOf(request.get("url")) : "";
+
+            try {
+                // A type-only pattern pauses same-site requests too; images always pass
+                if ("Image".equals(resourceType) && !matchesUrlPattern(url)) {
+                    devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+                    return;
+                }
+
+                PageStats stats = current();
+                stats.blockedRequests.incrementAndGet();
+                if (measureBytes) {
+                    stats.blockedBytes.addAndGet(contentLength(
+                            (List<Map<String, Object>>) params.get("responseHeaders")));
+                }
+                devTools.send(new Command<>("Fetch.failRequest",
+                        Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+                logger.debug("Blocked {} {}", resourceType, url);
+            } catch (Exception e) {
+                logger.debug("Could not resolve paused request {}: {}", url, e.getMessage());
+            }
+        }
+
+        private boolean matchesUrlPattern(String url) {
+            for (String pattern : urlPatterns) {
+                if (toRegex(pattern).matcher(url).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long contentLength(List<Map<String, Object>> headers) {
+            if (headers == null) {
+                return 0;
+            }
+            for (Map<String, Object> header : headers) {
+                if ("content-length".equalsIgnoreCase(String.valueOf(header.get("name")))) {
+                    try {
+                        return Long.parseLong(String.valueOf(header.get("value")).trim());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.elpais.automation.drivers;
+
+import com.elpais.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Shared HTTP transport for RemoteWebDriver command traffic: one keep-alive connection pool per hub
+// and client settings for the whole JVM, per-command read timeouts, optional gzip and per-session command latency
+public class RemoteTransport {
+    private static final Logger logger = LogManager.getLogger(RemoteTransport.class);
+    private static final Pattern SESSION_PATH = Pattern.compile("/session/([^/]+)");
+    // DELETE on the session itself (not on one of its resources) is the quit command
+    private static final Pattern QUIT_PATH = Pattern.compile("/session/[^/]+/?$");
+    private static final int COMPRESSION_THRESHOLD_BYTES = 1024;
+
+    private static final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+    private static final Map<String, CommandLatency> latencies = new ConcurrentHashMap<>();
+    private static volatile HttpClient.Factory delegateFactory;
+
+    private RemoteTransport() {
+    }
+
+    // Create a remote session whose command traffic goes through the shared client for the hub
+    public static RemoteWebDriver createDriver(URL hubUrl, Capabilities capabilities) {
+        configureJvm();
+
+        int connectTimeoutSec = ConfigManager.getInt("remote.transport.connectTimeoutSec", 30);
+        int readTimeoutSec = ConfigManager.getInt("remote.transport.readTimeoutSec", 120);
+        boolean compress = ConfigManager.getBoolean("remote.transport.compress", false);
+
+        ClientConfig config = ClientConfig.defaultConfig()
+                .baseUrl(hubUrl)
+                .connectionTimeout(Duration.ofSeconds(connectTimeoutSec))
+                .readTimeout(Duration.ofSeconds(readTimeoutSec))
+                .withFilter(latencyFilter());
+        if (compress) {
+            config = config.withFilter(compressionFilter());
+        }
+
+        // Sessions share a client only when everything the client was built with is the same
+        String key = String.join("|", hubUrl.toString(), String.valueOf(connectTimeoutSec),
+                String.valueOf(readTimeoutSec), String.valueOf(compress));
+        HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), config,
+                clientConfig -> sharedClient(key, clientConfig));
+        return new RemoteWebDriver(executor, capabilities);
+    }
+
+    // Log and forget the command latency recorded for a session; call before it quits
+    public static void logSessionLatency(WebDriver driver) {
+        if (!(driver instanceof RemoteWebDriver)) {
+            return;
+        }
+        SessionId sessionId = ((RemoteWebDriver) driver).getSessionId();
+        CommandLatency latency = sessionId != null ? latencies.remove(sessionId.toString()) : null;
+        if (latency != null && latency.count.get() > 0) {
+            logger.info("Remote session {}: {} commands, avg {} ms, max {} ms, total {} ms", sessionId,
+                    latency.count.get(), latency.totalMillis.get() / latency.count.get(),
+                    latency.maxMillis.get(), latency.totalMillis.get());
+        }
+    }
+
+    // Command latency for a session id, or null if nothing was recorded
+    public static CommandLatency getSessionLatency(String sessionId) {
+        return latencies.get(sessionId);
+    }
+
+    // JVM-wide HTTP settings applied once instead of on every driver initialization
+    private static synchronized void configureJvm() {
+        if (delegateFactory != null) {
+            return;
+        }
+        System.setProperty("webdriver.http.factory", "jdk-http-client");
+        // Idle keep-alive connections of the JDK client stay open between commands and sessions
+        System.setProperty("jdk.httpclient.keepalive.timeout",
+                ConfigManager.get("remote.transport.keepAliveSec", "300"));
+        delegateFactory = HttpClient.Factory.create("jdk-http-client");
+        logger.info("Remote transport configured with a shared JDK HTTP client");
+    }
+
+    // One client per hub and client settings; the session's quit must not close the pool the other sessions use
+    private static HttpClient sharedClient(String key, ClientConfig config) {
+        return clients.computeIfAbsent(key, k -> {
+            // The hub URL can carry credentials, so only the host is logged
+            logger.info("Creating shared remote client for {} ({})", config.baseUri().getHost(),
+                    k.substring(k.indexOf('|') + 1));
+            return new NonClosingClient(delegateFactory.createClient(config));
+        });
+    }
+
+    // Record round-trip time per session; new-session requests are grouped under "new-session"
+    private static Filter latencyFilter() {
+        return next -> request -> {
+            long start = System.nanoTime();
+            try {
+                return next.execute(request);
+            } finally {
+                Matcher matcher = SESSION_PATH.matcher(request.getUri());
+                boolean found = matcher.find();
+                // The quit command arrives after the session's latency has been reported
+                boolean quit = request.getMethod() == HttpMethod.DELETE && QUIT_PATH.matcher(request.getUri()).find();
+                if (!quit) {
+                    latencies.computeIfAbsent(found ? matcher.group(1) : "new-session", k -> new CommandLatency())
+                            .record((System.nanoTime() - start) / 1_000_000);
+                }
+            }
+        };
+    }
+
+    // Gzip larger request bodies and accept gzip responses, for hubs that support it
+    private static Filter compressionFilter() {
+        return next -> request -> {
+            byte[] body = Contents.bytes(request.getContent());
+            if (body.length >= COMPRESSION_THRESHOLD_BYTES) {
+                request.setContent(Contents.bytes(gzip(body)));
+                request.setHeader("Content-Encoding", "gzip");
+            }
+            request.setHeader("Accept-Encoding", "gzip");
+
+            HttpResponse response = next.execute(request);
+            if ("gzip".equalsIgnoreCase(response.getHeader("Content-Encoding"))) {
+                response.setContent(Contents.bytes(gunzip(Contents.bytes(response.getContent()))));
+                response.removeHeader("Content-Encoding");
+            }
+            return response;
+        };
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Per-session command latency counters
+    public static class CommandLatency {
+        public final AtomicLong count = new AtomicLong();
+        public final AtomicLong totalMillis = new AtomicLong();
+        public final AtomicLong maxMillis = new AtomicLong();
+
+        void record(long millis) {
+            count.incrementAndGet();
+            totalMillis.addAndGet(millis);
+            maxMillis.accumulateAndGet(millis, Math::max);
+        }
+    }
+
+    // Delegates to the shared client but ignores close()
+    private static class NonClosingClient implements HttpClient {
+        private final HttpClient delegate;
+
+        NonClosingClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return delegate.execute(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // Shared across sessions for the life of the JVM
+        }
+    }
+}
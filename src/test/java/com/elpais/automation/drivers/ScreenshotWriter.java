@@ -0,0 +1,154 @@
+package com.elpais.automation.drivers;
+
+import com.elpais.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Background writer for screenshots: the test thread only captures PNG bytes, encoding and disk I/O
+// happen on a small bounded executor. When the queue is full the capturing thread writes the
+// screenshot itself, which slows capture down instead of buffering without limit.
+public class ScreenshotWriter {
+    private static final Logger logger = LogManager.getLogger(ScreenshotWriter.class);
+    private static final AtomicLong sequence = new AtomicLong();
+    private static ThreadPoolExecutor executor;
+    private static boolean shutdownHookAdded;
+    // Set by flush; later screenshots are written on the capturing thread
+    private static boolean closed;
+
+    private ScreenshotWriter() {
+    }
+
+    // When screenshots are taken at test teardown: always, onFailure or never
+    public static String getPolicy() {
+        if (!ConfigManager.getBoolean("feature.takeScreenshots", true)) {
+            return "never";
+        }
+        return ConfigManager.get("screenshot.policy", "onFailure");
+    }
+
+    // Whether the policy asks for a screenshot of a test with the given outcome
+    public static boolean shouldCapture(boolean failed) {
+        String policy = getPolicy();
+        return "always".equalsIgnoreCase(policy) || (failed && "onFailure".equalsIgnoreCase(policy));
+    }
+
+    // Queue PNG bytes for writing; returns the path the screenshot will be written to
+    public static String submit(String testName, byte[] png) {
+        String format = getFormat();
+        Path file = Paths.get(ConfigManager.get("screenshot.path", "./screenshots"),
+                sanitize(testName) + "_" + System.currentTimeMillis() + "_" + sequence.incrementAndGet() + "." + format);
+        Runnable task = () -> write(file, png, format);
+        ThreadPoolExecutor target = getExecutor();
+        if (target != null) {
+            target.execute(task);
+        } else {
+            task.run();
+        }
+        return file.toString();
+    }
+
+    // Wait for queued screenshots to be written; screenshots submitted afterwards are written synchronously
+    public static synchronized void flush(long timeoutSeconds) {
+        closed = true;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("{} screenshots still pending after {} s", executor.getQueue().size(), timeoutSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    // The writer executor, or null once flush has closed it
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null && !closed) {
+            int threads = ConfigManager.getInt("screenshot.writerThreads", 2);
+            executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(ConfigManager.getInt("screenshot.queueSize", 16)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "screenshot-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    // Unlike CallerRunsPolicy this also runs a task that raced with flush's shutdown
+                    (runnable, pool) -> runnable.run());
+            executor.allowCoreThreadTimeOut(true);
+            if (!shutdownHookAdded) {
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(30), "screenshot-writer-shutdown"));
+                shutdownHookAdded = true;
+            }
+        }
+        return executor;
+    }
+
+    private static void write(Path file, byte[] png, String format) {
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(file.getParent());
+            if ("png".equals(format)) {
+                Files.write(file, png);
+            } else {
+                writeJpeg(file, png);
+            }
+            logger.info("Screenshot saved: {} ({} KB, {} ms)", file, Files.size(file) / 1024,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to write screenshot {}", file, e);
+        }
+    }
+
+    // Re-encode as JPEG; much smaller than the PNG for photo-heavy pages
+    private static void writeJpeg(Path file, byte[] png) throws IOException {
+        // Memory-backed streams: ImageIO's file-cache streams are closed by its own shutdown hook,
+        // which races with the final flush
+        BufferedImage source = ImageIO.read(new MemoryCacheImageInputStream(new ByteArrayInputStream(png)));
+        if (source == null) {
+            throw new IOException("Screenshot is not a readable PNG");
+        }
+        // JPEG has no alpha channel
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        rgb.createGraphics().drawImage(source, 0, 0, java.awt.Color.WHITE, null);
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(ConfigManager.getInt("screenshot.jpegQuality", 80) / 100f);
+        try (ImageOutputStream out = new FileImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static String getFormat() {
+        String format = ConfigManager.get("screenshot.format", "png").toLowerCase();
+        return "jpg".equals(format) || "jpeg".equals(format) ? "jpg" : "png";
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
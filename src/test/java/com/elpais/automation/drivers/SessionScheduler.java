@@ -0,0 +1,140 @@
+package com.elpais.automation.drivers;
+
+import com.elpais.automation.config.BrowserStackConfig;
+import com.elpais.automation.config.CapabilityMatrix;
+import com.elpais.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Runs a capability matrix concurrently up to the plan's parallel-session limit; queued sessions
+// start as soon as a running one finishes
+public class SessionScheduler {
+    private static final Logger logger = LogManager.getLogger(SessionScheduler.class);
+
+    private final int maxParallel;
+    private final Function<CapabilityMatrix.Entry, WebDriver> sessionFactory;
+
+    public SessionScheduler(int maxParallel, Function<CapabilityMatrix.Entry, WebDriver> sessionFactory) {
+        this.maxParallel = Math.max(1, maxParallel);
+        this.sessionFactory = sessionFactory;
+    }
+
+    // Scheduler for the configured hub (BrowserStack by default, or a local Selenium Grid)
+    public static SessionScheduler fromConfig(String hubUrl) throws MalformedURLException {
+        BrowserStackConfig config = new BrowserStackConfig();
+        URL url = new URL(hubUrl == null || hubUrl.isEmpty()
+                ? ConfigManager.get("matrix.hubUrl", config.getUrl()) : hubUrl);
+        int maxParallel = ConfigManager.getInt("matrix.maxParallel", ConfigManager.getInt("parallel.threads", 1));
+
+        return forHub(url, maxParallel);
+    }
+
+    // Scheduler whose sessions are created on the given hub through DriverManager
+    public static SessionScheduler forHub(URL hubUrl, int maxParallel) {
+        BrowserStackConfig config = new BrowserStackConfig();
+        logger.info("Scheduling against {} with up to {} parallel sessions", hubUrl, maxParallel);
+        return new SessionScheduler(maxParallel,
+                entry -> DriverManager.createSession(hubUrl, entry.toCapabilities(config), entry.isMobile()));
+    }
+
+    // Run the task once per matrix entry, each in its own session
+    public ScheduleReport run(List<CapabilityMatrix.Entry> entries, Consumer<WebDriver> task) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxParallel, Math.max(1, entries.size())));
+        List<Future<SessionResult>> futures = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        ScheduleReport report = new ScheduleReport();
+
+        try {
+            for (CapabilityMatrix.Entry entry : entries) {
+                futures.add(executor.submit(() -> runSession(entry, task)));
+            }
+            for (Future<SessionResult> future : futures) {
+                try {
+                    report.results.add(future.get());
+                } catch (ExecutionException e) {
+                    logger.error("Scheduled session did not complete", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for scheduled sessions");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        report.wallClockMillis = System.currentTimeMillis() - start;
+        report.log();
+        return report;
+    }
+
+    private SessionResult runSession(CapabilityMatrix.Entry entry, Consumer<WebDriver> task) {
+        SessionResult result = new SessionResult(entry);
+        long start = System.currentTimeMillis();
+        WebDriver driver = null;
+
+        try {
+            logger.info("Starting session: {}", entry);
+            driver = sessionFactory.apply(entry);
+            task.accept(driver);
+            result.passed = true;
+        } catch (Exception e) {
+            result.error = e.getMessage();
+            logger.error("Session failed: {}", entry, e);
+        } finally {
+            if (driver != null) {
+                DriverManager.closeSession(driver);
+            }
+            result.durationMillis = System.currentTimeMillis() - start;
+            logger.info("Finished session: {} in {} ms", entry, result.durationMillis);
+        }
+        return result;
+    }
+
+    // Outcome of one matrix session
+    public static class SessionResult {
+        public final CapabilityMatrix.Entry entry;
+        public boolean passed;
+        public String error;
+        public long durationMillis;
+
+        SessionResult(CapabilityMatrix.Entry entry) {
+            this.entry = entry;
+        }
+    }
+
+    // Wall-clock time of the schedule against the serial baseline (sum of session durations)
+    public static class ScheduleReport {
+        public final List<SessionResult> results = new ArrayList<>();
+        public long wallClockMillis;
+
+        public long getSerialBaselineMillis() {
+            return results.stream().mapToLong(result -> result.durationMillis).sum();
+        }
+
+        public boolean allPassed() {
+            return results.stream().allMatch(result -> result.passed);
+        }
+
+        void log() {
+            long serial = getSerialBaselineMillis();
+            logger.info("Matrix of {} sessions: wall clock {} ms, serial baseline {} ms, speedup {}x",
+                    results.size(), wallClockMillis, serial,
+                    String.format("%.2f", wallClockMillis > 0 ? (double) serial / wallClockMillis : 0));
+            for (SessionResult result : results) {
+                logger.info("  {}: {} in {} ms{}", result.entry, result.passed ? "PASSED" : "FAILED",
+                        result.durationMillis, result.error != null ? " (" + result.error + ")" : "");
+            }
+        }
+    }
+}
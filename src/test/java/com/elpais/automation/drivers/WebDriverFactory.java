@@ -2,21 +2,31 @@ package com.elpais.automation.drivers;
 
 import com.elpais.automation.config.BrowserStackConfig;
 import com.elpais.automation.config.ConfigManager;
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.DesiredCapabilities;
 import java.net.MalformedURLException;
 import java.net.URL;
 
 // WebDriver factory for creating local and remote WebDriver instances
 public class WebDriverFactory {
     private static final Logger logger = LogManager.getLogger(WebDriverFactory.class);
+    private static BrowserStackConfig browserStackConfig;
+
+    // BrowserStack credentials and hub are loaded once and shared by every remote session
+    private static synchronized BrowserStackConfig getBrowserStackConfig() {
+        if (browserStackConfig == null) {
+            browserStackConfig = new BrowserStackConfig();
+        }
+        return browserStackConfig;
+    }
 
     // Create local WebDriver for the specified browser
     public static WebDriver createLocalDriver(String browserName) {
@@ -40,10 +50,11 @@ public class WebDriverFactory {
         logger.info("Creating remote WebDriver for BrowserStack: {} {} on {} {}",
                    browserName, browserVersion, os, osVersion);
 
-        BrowserStackConfig config = new BrowserStackConfig();
+        BrowserStackConfig config = getBrowserStackConfig();
         URL url = new URL(config.getUrl());
 
-        return new RemoteWebDriver(url, config.buildCapabilities(browserName, browserVersion, os, osVersion, resolution));
+        DesiredCapabilities caps = config.buildCapabilities(browserName, browserVersion, os, osVersion, resolution);
+        return createRemoteDriver(url, caps);
     }
 
     // Create remote WebDriver for mobile device on BrowserStack
@@ -51,31 +62,78 @@ public class WebDriverFactory {
             throws MalformedURLException {
         logger.info("Creating remote mobile WebDriver for BrowserStack: {} - {}", device, browserName);
 
-        BrowserStackConfig config = new BrowserStackConfig();
+        BrowserStackConfig config = getBrowserStackConfig();
         URL url = new URL(config.getUrl());
 
-        return new RemoteWebDriver(url, config.buildMobileCapabilities(device, osVersion, browserName));
+        DesiredCapabilities caps = config.buildMobileCapabilities(device, osVersion, browserName);
+        return createRemoteDriver(url, caps);
+    }
+
+    // Create a remote session on any hub (BrowserStack or a Selenium Grid) with the configured page load strategy
+    public static WebDriver createRemoteDriver(URL hubUrl, DesiredCapabilities caps) {
+        caps.setCapability(CapabilityType.PAGE_LOAD_STRATEGY, getPageLoadStrategy().toString());
+        return RemoteTransport.createDriver(hubUrl, caps);
+    }
+
+    // Page load strategy from app.pageLoadStrategy (normal, eager or none)
+    public static PageLoadStrategy getPageLoadStrategy() {
+        String configured = ConfigManager.get("app.pageLoadStrategy", "normal");
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(configured.toLowerCase());
+        if (strategy == null) {
+            logger.warn("Unknown page load strategy '{}', using normal", configured);
+            return PageLoadStrategy.NORMAL;
+        }
+        return strategy;
     }
 
     // Create local Chrome driver
     private static WebDriver createChromeDriver() {
-        WebDriverManager.chromedriver().setup();
+        long start = System.currentTimeMillis();
+        DriverBinaryResolver.resolve("chrome");
+        long resolved = System.currentTimeMillis();
+
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--no-sandbox");
         options.addArguments("--disable-dev-shm-usage");
         options.addArguments("--disable-gpu");
+        options.setPageLoadStrategy(getPageLoadStrategy());
+
+        if (ChromeProfileManager.isEnabled()) {
+            ChromeProfileManager.applyTo(options);
+        }
+        if (LeanBrowsingProfile.isEnabled()) {
+            LeanBrowsingProfile.configure(options);
+        }
 
-        logger.info("Chrome driver initialized");
-        return new ChromeDriver(options);
+        ChromeDriver driver = null;
+        try {
+            driver = new ChromeDriver(options);
+        } finally {
+            ChromeProfileManager.bind(driver);
+        }
+        long launched = System.currentTimeMillis();
+        if (LeanBrowsingProfile.isEnabled()) {
+            LeanBrowsingProfile.attach(driver);
+        }
+
+        logger.info("Chrome driver initialized (driver resolution {} ms, browser launch {} ms, profile setup {} ms)",
+                resolved - start, launched - resolved, System.currentTimeMillis() - launched);
+        return driver;
     }
 
     // Create local Firefox driver
     private static WebDriver createFirefoxDriver() {
-        WebDriverManager.firefoxdriver().setup();
+        long start = System.currentTimeMillis();
+        DriverBinaryResolver.resolve("firefox");
+        long resolved = System.currentTimeMillis();
+
         FirefoxOptions options = new FirefoxOptions();
         options.addArguments("--disable-gpu");
+        options.setPageLoadStrategy(getPageLoadStrategy());
 
-        logger.info("Firefox driver initialized");
-        return new FirefoxDriver(options);
+        WebDriver driver = new FirefoxDriver(options);
+        logger.info("Firefox driver initialized (driver resolution {} ms, browser launch {} ms)",
+                resolved - start, System.currentTimeMillis() - resolved);
+        return driver;
     }
 }
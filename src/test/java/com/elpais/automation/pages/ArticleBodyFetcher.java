@@ -0,0 +1,210 @@
+package com.elpais.automation.pages;
+
+import com.elpais.automation.config.ConfigManager;
+import com.elpais.automation.utils.HtmlElement;
+import com.elpais.automation.utils.HtmlParser;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+// Fetches full article bodies concurrently over HTTP, with at most body.fetch.perHost requests
+// in flight per host. Pages whose body is not in the server HTML (rendered by JavaScript) are
+// loaded afterwards, one at a time, in the fallback browser session if one was given.
+public class ArticleBodyFetcher {
+    private static final Logger logger = LogManager.getLogger(ArticleBodyFetcher.class);
+
+    // Tried in order; the first selector that yields body text wins
+    private static final String DEFAULT_BODY_SELECTORS =
+            "div[data-dtm-region='articulo_cuerpo'] p; .a_c p; article p";
+
+    private static final String BROWSER_BODY_SCRIPT =
+            "var selectors = arguments[0];"
+            + "for (var i = 0; i < selectors.length; i++) {"
+            + "  var text = Array.prototype.map.call(document.querySelectorAll(selectors[i]), function (p) {"
+            + "    return (p.innerText || p.textContent || '').trim();"
+            + "  }).filter(function (t) { return t.length > 0; });"
+            + "  if (text.length) { return text.join('\\n\\n'); }"
+            + "}"
+            + "return '';";
+
+    private final WebDriver fallbackDriver;
+    private final List<String> bodySelectors;
+    private final int threads;
+    private final int perHost;
+    private final int minBodyChars;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    // fallbackDriver may be null to skip the browser fallback
+    public ArticleBodyFetcher(WebDriver fallbackDriver) {
+        this.fallbackDriver = fallbackDriver;
+        this.bodySelectors = Arrays.stream(ConfigManager.get("body.selectors", DEFAULT_BODY_SELECTORS).split(";"))
+                .map(String::trim)
+                .filter(selector -> !selector.isEmpty())
+                .collect(Collectors.toList());
+        this.threads = ConfigManager.getInt("body.fetch.threads", 8);
+        this.perHost = ConfigManager.getInt("body.fetch.perHost", 4);
+        this.minBodyChars = ConfigManager.getInt("body.minChars", 200);
+    }
+
+    // Attach the full body text to each article; returns how many articles got a body
+    public int fetchBodies(List<OpinionPage.ArticleData> articles) {
+        long start = System.currentTimeMillis();
+        List<OpinionPage.ArticleData> needBrowser = new ArrayList<>();
+
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+        connections.setMaxTotal(threads);
+        connections.setDefaultMaxPerRoute(perHost);
+        int timeoutMs = ConfigManager.getInt("scrape.http.timeoutMs", 15000);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMs)
+                .setSocketTimeout(timeoutMs)
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connections)
+                .setDefaultRequestConfig(requestConfig)
+                .build()) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (OpinionPage.ArticleData article : articles) {
+                results.add(executor.submit(() -> fetchOverHttp(httpClient, article)));
+            }
+            for (int i = 0; i < articles.size(); i++) {
+                if (!Boolean.TRUE.equals(results.get(i).get())) {
+                    needBrowser.add(articles.get(i));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Concurrent body fetch failed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        long httpDone = System.currentTimeMillis();
+
+        int browserFetched = 0;
+        if (fallbackDriver != null && !needBrowser.isEmpty()) {
+            browserFetched = fetchInBrowser(needBrowser);
+        }
+
+        int withBody = (int) articles.stream().filter(article -> article.body != null && !article.body.isEmpty()).count();
+        logger.info("Article bodies: {} of {} ({} over HTTP in {} ms, {} in the browser in {} ms)",
+                withBody, articles.size(), articles.size() - needBrowser.size(), httpDone - start,
+                browserFetched, System.currentTimeMillis() - httpDone);
+        return withBody;
+    }
+
+    // Read every body in the fallback session only, skipping HTTP; returns how many articles got a body
+    public int fetchBodiesInBrowser(List<OpinionPage.ArticleData> articles) {
+        return fallbackDriver != null ? fetchInBrowser(articles) : 0;
+    }
+
+    // True when the server HTML held a usable body
+    private boolean fetchOverHttp(CloseableHttpClient httpClient, OpinionPage.ArticleData article) {
+        if (article.articleUrl == null || article.articleUrl.isEmpty()) {
+            return false;
+        }
+        Semaphore permits;
+        try {
+            permits = hostPermits.computeIfAbsent(URI.create(article.articleUrl).getHost(), host -> new Semaphore(perHost));
+        } catch (IllegalArgumentException e) {
+            logger.debug("Invalid article URL {}", article.articleUrl);
+            return false;
+        }
+
+        try {
+            permits.acquire();
+            try {
+                HttpGet get = new HttpGet(article.articleUrl);
+                get.setHeader("User-Agent", ConfigManager.get("scrape.http.userAgent", HttpArticleSource.DEFAULT_USER_AGENT));
+                get.setHeader("Accept", "text/html,application/xhtml+xml");
+                get.setHeader("Accept-Language", "es-ES,es;q=0.9");
+                try (CloseableHttpResponse response = httpClient.execute(get)) {
+                    String html = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+                    if (response.getStatusLine().getStatusCode() != 200) {
+                        logger.debug("HTTP {} for {}", response.getStatusLine().getStatusCode(), article.articleUrl);
+                        return false;
+                    }
+                    String body = extractBody(HtmlParser.parse(html));
+                    if (body.length() < minBodyChars) {
+                        logger.debug("No body in server HTML of {}", article.articleUrl);
+                        return false;
+                    }
+                    article.body = body;
+                    return true;
+                }
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            logger.debug("Body fetch failed for {}: {}", article.articleUrl, e.getMessage());
+            return false;
+        }
+    }
+
+    private String extractBody(HtmlElement document) {
+        for (String selector : bodySelectors) {
+            String body = document.select(selector).stream()
+                    .map(HtmlElement::text)
+                    .filter(text -> !text.isEmpty())
+                    .collect(Collectors.joining("\n\n"));
+            if (!body.isEmpty()) {
+                return body;
+            }
+        }
+        return "";
+    }
+
+    // Load each remaining page in the session and read the rendered body; restores the original page
+    private int fetchInBrowser(List<OpinionPage.ArticleData> articles) {
+        String originalUrl = fallbackDriver.getCurrentUrl();
+        BasePage page = new BasePage(fallbackDriver);
+        int fetched = 0;
+        for (OpinionPage.ArticleData article : articles) {
+            if (article.articleUrl == null || article.articleUrl.isEmpty()) {
+                continue;
+            }
+            try {
+                fallbackDriver.get(article.articleUrl);
+                page.waitForPageReady(By.tagName("article"), By.tagName("p"));
+                Object body = page.executeScript(BROWSER_BODY_SCRIPT, bodySelectors);
+                if (body instanceof String && !((String) body).isEmpty()) {
+                    article.body = (String) body;
+                    fetched++;
+                }
+            } catch (Exception e) {
+                logger.warn("Browser body fetch failed for {}: {}", article.articleUrl, e.getMessage());
+            }
+        }
+        try {
+            fallbackDriver.get(originalUrl);
+        } catch (Exception e) {
+            logger.debug("Could not return to {}: {}", originalUrl, e.getMessage());
+        }
+        return fetched;
+    }
+}
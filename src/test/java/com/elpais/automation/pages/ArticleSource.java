@@ -0,0 +1,36 @@
+package com.elpais.automation.pages;
+
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+// Source of the Opinion section's top articles, independent of how the listing is fetched:
+// OpinionPage reads it from a live browser session, HttpArticleSource from the raw HTML
+public interface ArticleSource {
+
+    // First N articles of the listing, in page order
+    List<OpinionPage.ArticleData> getTopArticles(int count);
+
+    // Publish the first N articles to the subscriber as they become available and return how many were
+    // published. This default publishes the finished list; sources that extract one article at a time
+    // override it so subscribers can start before extraction finishes.
+    default int streamTopArticles(int count, Flow.Subscriber<? super OpinionPage.ArticleData> subscriber) {
+        int published = 0;
+        try (SubmissionPublisher<OpinionPage.ArticleData> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(subscriber);
+            try {
+                for (OpinionPage.ArticleData article : getTopArticles(count)) {
+                    if (!publisher.hasSubscribers()) {
+                        break;
+                    }
+                    publisher.submit(article);
+                    published++;
+                }
+            } catch (RuntimeException e) {
+                publisher.closeExceptionally(e);
+                throw e;
+            }
+        }
+        return published;
+    }
+}
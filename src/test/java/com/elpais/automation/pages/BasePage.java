@@ -1,14 +1,26 @@
 package com.elpais.automation.pages;
 
+import com.elpais.automation.config.ConfigManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.CapabilityType;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 //Base Page Object Model class
@@ -17,17 +29,82 @@ public class BasePage {
     protected static final Logger logger = LogManager.getLogger(BasePage.class);
     protected WebDriver driver;
     protected WebDriverWait wait;
+    protected DomWaitEngine domWaits;
     private static final int TIMEOUT_SECONDS = 15;
+    private static final long LOOKUP_POLL_MILLIS = 50;
+
+    // Time spent on lookups that matched nothing, accumulated for the whole run
+    private static final AtomicInteger failedLookups = new AtomicInteger();
+    private static final AtomicLong failedLookupMillis = new AtomicLong();
+
+    // Scrolls every target into view in one pass (one animation frame each so IntersectionObserver
+    // based lazy loaders fire; a short timer instead while the tab is hidden, since hidden tabs run
+    // no animation frames), then polls in-browser until each target has text or an image and no
+    // pending images, or the time cap is hit. Resolves with the number of ready targets.
+    private static final String LAZY_CONTENT_SCRIPT =
+            "var targets = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];"
+            + "var deadline = Date.now() + timeoutMs;"
+            + "var seen = new Set();"
+            + "var observer = window.IntersectionObserver ? new IntersectionObserver(function (entries) {"
+            + "  entries.forEach(function (e) { if (e.isIntersecting) { seen.add(e.target); } });"
+            + "}) : null;"
+            + "var isReady = function (el) {"
+            + "  var imgs = el.getElementsByTagName('img');"
+            + "  if (!imgs.length && !(el.innerText || el.textContent || '').trim()) { return false; }"
+            + "  for (var i = 0; i < imgs.length; i++) {"
+            + "    var img = imgs[i];"
+            + "    if (!img.complete) { return false; }"
+            + "    if (!img.currentSrc && !img.getAttribute('src') && img.getAttribute('data-src')) { return false; }"
+            + "  }"
+            + "  return !observer || seen.has(el);"
+            + "};"
+            + "var finish = function () {"
+            + "  if (observer) { observer.disconnect(); }"
+            + "  done(targets.filter(isReady).length);"
+            + "};"
+            + "var poll = function () {"
+            + "  if (targets.every(isReady) || Date.now() >= deadline) { finish(); } else { setTimeout(poll, 50); }"
+            + "};"
+            + "var nextFrame = function (f) {"
+            + "  if (document.hidden) { setTimeout(f, 16); } else { requestAnimationFrame(f); }"
+            + "};"
+            + "var scrollNext = function (i) {"
+            + "  if (i >= targets.length || Date.now() >= deadline) { poll(); return; }"
+            + "  if (observer) { observer.observe(targets[i]); }"
+            + "  targets[i].scrollIntoView({block:'center'});"
+            + "  nextFrame(function () { nextFrame(function () { scrollNext(i + 1); }); });"
+            + "};"
+            + "scrollNext(0);";
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(TIMEOUT_SECONDS));
+        if (ConfigManager.getBoolean("feature.mutationObserverWaits", false)) {
+            this.domWaits = new DomWaitEngine(driver);
+        }
+    }
+
+//Use the in-page MutationObserver engine when enabled and the locator can be evaluated in-page
+
+    private boolean useDomWaits(By locator) {
+        return domWaits != null && (locator == null || DomWaitEngine.isSupported(locator));
     }
 
 //Wait for element to be visible and return it
 
     protected WebElement waitForElement(By locator) {
         logger.debug("Waiting for element: {}", locator);
+        if (useDomWaits(locator)) {
+            try {
+                WebElement element = domWaits.waitForVisible(locator, Duration.ofSeconds(TIMEOUT_SECONDS));
+                if (element == null) {
+                    throw new TimeoutException("Element not visible after " + TIMEOUT_SECONDS + "s: " + locator);
+                }
+                return element;
+            } catch (JavascriptException e) {
+                logger.debug("In-page wait failed, falling back to polling: {}", e.getMessage());
+            }
+        }
         return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
     }
 
@@ -65,6 +142,86 @@ public class BasePage {
         return driver.findElement(locator);
     }
 
+//Find the first element matching any of the locators within timeoutMs, or null if none match.
+//With a zero implicit wait each miss costs one findElements call instead of the implicit timeout.
+
+    protected WebElement findFirst(SearchContext context, long timeoutMs, By... locators) {
+        return findFirst(context, timeoutMs, Arrays.asList(locators), new int[1]);
+    }
+
+//Same lookup for a named element: with the locator registry enabled the chain is split into its
+//concrete strategies, tried in the order that worked before, and the result is recorded
+
+    protected WebElement findFirst(String elementKey, SearchContext context, long timeoutMs, By... locators) {
+        if (!LocatorRegistry.isEnabled()) {
+            return findFirst(context, timeoutMs, locators);
+        }
+        String key = getClass().getSimpleName() + "." + elementKey;
+        List<By> ordered = LocatorRegistry.order(key, locators);
+        int[] winner = new int[1];
+        WebElement element = findFirst(context, timeoutMs, ordered, winner);
+        LocatorRegistry.record(key, ordered, winner[0]);
+        return element;
+    }
+
+//Concrete strategy of the chain that currently finds the element on the page, for callers that
+//wait or click by locator; the first locator when the registry is disabled or nothing matches
+
+    protected By resolveLocator(String elementKey, long timeoutMs, By... locators) {
+        if (!LocatorRegistry.isEnabled()) {
+            return locators[0];
+        }
+        String key = getClass().getSimpleName() + "." + elementKey;
+        List<By> ordered = LocatorRegistry.order(key, locators);
+        int[] winner = new int[1];
+        findFirst(driver, timeoutMs, ordered, winner);
+        LocatorRegistry.record(key, ordered, winner[0]);
+        return winner[0] >= 0 ? ordered.get(winner[0]) : locators[0];
+    }
+
+    private WebElement findFirst(SearchContext context, long timeoutMs, List<By> locators, int[] winner) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeoutMs;
+
+        while (true) {
+            for (int i = 0; i < locators.size(); i++) {
+                List<WebElement> found = context.findElements(locators.get(i));
+                if (!found.isEmpty()) {
+                    winner[0] = i;
+                    return found.get(0);
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            try {
+                Thread.sleep(LOOKUP_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        failedLookups.incrementAndGet();
+        failedLookupMillis.addAndGet(elapsed);
+        logger.debug("No match for {} after {} ms", locators, elapsed);
+        winner[0] = -1;
+        return null;
+    }
+
+//Number of lookups in this run that matched nothing
+
+    public static int getFailedLookupCount() {
+        return failedLookups.get();
+    }
+
+//Total milliseconds spent in this run on lookups that matched nothing
+
+    public static long getFailedLookupMillis() {
+        return failedLookupMillis.get();
+    }
+
 //Check if element is present
 
     protected boolean isElementPresent(By locator) {
@@ -74,10 +231,27 @@ public class BasePage {
 //Wait for element to be present
 
     protected void waitForElementPresent(By locator) {
+        if (useDomWaits(locator)) {
+            try {
+                if (domWaits.waitForPresent(locator, Duration.ofSeconds(TIMEOUT_SECONDS)) == null) {
+                    throw new TimeoutException("Element not present after " + TIMEOUT_SECONDS + "s: " + locator);
+                }
+                return;
+            } catch (JavascriptException e) {
+                logger.debug("In-page wait failed, falling back to polling: {}", e.getMessage());
+            }
+        }
         wait.until(ExpectedConditions.presenceOfElementLocated(locator));
     }
 
     protected boolean waitForElementVisible(By locator, int timeoutSeconds) {
+        if (useDomWaits(locator)) {
+            try {
+                return domWaits.waitForVisible(locator, Duration.ofSeconds(timeoutSeconds)) != null;
+            } catch (JavascriptException e) {
+                logger.debug("In-page wait failed, falling back to polling: {}", e.getMessage());
+            }
+        }
         try {
             WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
             customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
@@ -121,20 +295,120 @@ public class BasePage {
                 .executeScript("arguments[0].scrollIntoView({block:'center'});", element);
     }
 
+//Make the current tab the visible one where the browser allows it (Chromium, over CDP);
+//background tabs throttle the timers and animation frames the lazy content wait relies on
+
+    protected void bringToFront() {
+        if (driver instanceof HasCdp) {
+            try {
+                ((HasCdp) driver).executeCdpCommand("Page.bringToFront", Map.of());
+            } catch (Exception e) {
+                logger.debug("Could not bring tab to front: {}", e.getMessage());
+            }
+        }
+    }
+
+//Wait until the element's lazy images or text are loaded, capped at timeoutMs
+
+    protected boolean waitForLazyContent(WebElement element, long timeoutMs) {
+        return waitForLazyContent(Collections.singletonList(element), timeoutMs) == 1;
+    }
+
+//Preload all elements in one scroll pass and wait for their lazy content; returns how many are ready
+
+    protected int waitForLazyContent(List<WebElement> elements, long timeoutMs) {
+        if (elements.isEmpty()) {
+            return 0;
+        }
+        logger.debug("Waiting up to {} ms for lazy content of {} elements", timeoutMs, elements.size());
+        try {
+            Object ready = ((org.openqa.selenium.JavascriptExecutor) driver)
+                    .executeAsyncScript(LAZY_CONTENT_SCRIPT, elements, timeoutMs);
+            return ready instanceof Number ? ((Number) ready).intValue() : 0;
+        } catch (Exception e) {
+            logger.warn("Lazy content wait failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
 //Execute JavaScript
   
     protected Object executeScript(String script, Object... args) {
         return ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(script, args);
     }
 
+//True when the session blocks navigation until the load event (the default strategy)
+
+    protected boolean isNormalPageLoad() {
+        if (driver instanceof HasCapabilities) {
+            Object strategy = ((HasCapabilities) driver).getCapabilities()
+                    .getCapability(CapabilityType.PAGE_LOAD_STRATEGY);
+            return strategy == null || "normal".equalsIgnoreCase(String.valueOf(strategy));
+        }
+        return true;
+    }
+
+//Wait until the page is usable: the full load under the normal strategy,
+//otherwise only until one of the elements the caller needs is present
+
+    protected void waitForPageReady(By... readyLocators) {
+        if (isNormalPageLoad() || readyLocators.length == 0) {
+            waitForPageLoad();
+        } else {
+            wait.until(driver -> {
+                for (By locator : readyLocators) {
+                    if (!driver.findElements(locator).isEmpty()) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+            logger.debug("Page ready: {}", Arrays.toString(readyLocators));
+            recordPageMetrics();
+        }
+    }
+
+//Record navigation timing for the page just waited for, labelled with the class and method that
+//waited (the first frame outside BasePage). Under a non-normal load strategy the load figures may
+//still be 0 (see readyState in the record).
+
+    private void recordPageMetrics() {
+        if (!PageMetrics.isEnabled()) {
+            return;
+        }
+        String label = StackWalker.getInstance()
+                .walk(frames -> frames.filter(frame -> !frame.getClassName().equals(BasePage.class.getName()))
+                        .findFirst())
+                .map(frame -> {
+                    String className = frame.getClassName();
+                    String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                    return simpleName.replaceFirst("\\$.*", "") + "." + frame.getMethodName();
+                })
+                .orElse(getClass().getSimpleName());
+        PageMetrics.capture(driver, label);
+    }
+
 //Wait for page to load
     
     protected void waitForPageLoad() {
+        if (useDomWaits(null)) {
+            try {
+                if (!domWaits.waitForPageLoad(Duration.ofSeconds(TIMEOUT_SECONDS))) {
+                    throw new TimeoutException("Page not loaded after " + TIMEOUT_SECONDS + "s");
+                }
+                logger.debug("Page loaded");
+                recordPageMetrics();
+                return;
+            } catch (JavascriptException e) {
+                logger.debug("In-page wait failed, falling back to polling: {}", e.getMessage());
+            }
+        }
         wait.until(driver -> {
             Object readyState = executeScript("return document.readyState");
             return "complete".equals(readyState);
         });
         logger.debug("Page loaded");
+        recordPageMetrics();
     }
 }
 
@@ -0,0 +1,112 @@
+package com.elpais.automation.pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+// Wait engine that resolves conditions inside the browser with a MutationObserver,
+// so each wait costs a single executeAsyncScript round-trip instead of polling every 500ms
+public class DomWaitEngine {
+    private static final Logger logger = LogManager.getLogger(DomWaitEngine.class);
+
+    // Locator strategies the in-page finder understands
+    private static final List<String> SUPPORTED_STRATEGIES =
+            Arrays.asList("css selector", "xpath", "tag name", "id", "name", "class name");
+
+    private static final String WAIT_SCRIPT =
+            "var using = arguments[0], value = arguments[1], condition = arguments[2], timeoutMs = arguments[3];"
+            + "var done = arguments[arguments.length - 1];"
+            + "var find = function () {"
+            + "  switch (using) {"
+            + "    case 'css selector': return document.querySelector(value);"
+            + "    case 'xpath': return document.evaluate(value, document, null,"
+            + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    case 'tag name': return document.getElementsByTagName(value)[0] || null;"
+            + "    case 'id': return document.getElementById(value);"
+            + "    case 'name': return document.getElementsByName(value)[0] || null;"
+            + "    case 'class name': return document.getElementsByClassName(value)[0] || null;"
+            + "  }"
+            + "  return null;"
+            + "};"
+            + "var isVisible = function (el) {"
+            + "  if (!el.getClientRects().length) { return false; }"
+            + "  var style = window.getComputedStyle(el);"
+            + "  return style.visibility !== 'hidden' && style.display !== 'none' && style.opacity !== '0';"
+            + "};"
+            + "var check = function () {"
+            + "  if (condition === 'pageLoad') { return document.readyState === 'complete' ? true : null; }"
+            + "  var el = find();"
+            + "  if (!el || (condition === 'visible' && !isVisible(el))) { return null; }"
+            + "  return el;"
+            + "};"
+            + "var initial = check();"
+            + "if (initial) { done(initial); return; }"
+            + "var settled = false, observer = null, timer = null, fallback = null;"
+            + "var onChange = function () { var result = check(); if (result) { settle(result); } };"
+            + "var settle = function (result) {"
+            + "  if (settled) { return; }"
+            + "  settled = true;"
+            + "  if (observer) { observer.disconnect(); }"
+            + "  clearTimeout(timer);"
+            + "  clearInterval(fallback);"
+            + "  document.removeEventListener('readystatechange', onChange);"
+            + "  window.removeEventListener('load', onChange);"
+            + "  done(result);"
+            + "};"
+            + "observer = new MutationObserver(onChange);"
+            + "observer.observe(document.documentElement || document,"
+            + "    {childList: true, subtree: true, attributes: true});"
+            + "document.addEventListener('readystatechange', onChange);"
+            + "window.addEventListener('load', onChange);"
+            // Style-only changes (transitions, stylesheet loads) produce no mutations
+            + "fallback = setInterval(onChange, 250);"
+            + "timer = setTimeout(function () { settle(null); }, timeoutMs);";
+
+    private final WebDriver driver;
+
+    public DomWaitEngine(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    // Check whether the locator can be evaluated in-page
+    public static boolean isSupported(By locator) {
+        return locator instanceof By.Remotable
+                && SUPPORTED_STRATEGIES.contains(((By.Remotable) locator).getRemoteParameters().using());
+    }
+
+    // Wait for the first matching element to be present; returns null on timeout
+    public WebElement waitForPresent(By locator, Duration timeout) {
+        return (WebElement) waitFor(locator, "present", timeout);
+    }
+
+    // Wait for the first matching element to be visible; returns null on timeout
+    public WebElement waitForVisible(By locator, Duration timeout) {
+        return (WebElement) waitFor(locator, "visible", timeout);
+    }
+
+    // Wait for document.readyState to become complete
+    public boolean waitForPageLoad(Duration timeout) {
+        return Boolean.TRUE.equals(waitFor(null, "pageLoad", timeout));
+    }
+
+    private Object waitFor(By locator, String condition, Duration timeout) {
+        String using = "";
+        Object value = "";
+        if (locator != null) {
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            using = parameters.using();
+            value = parameters.value();
+        }
+
+        logger.debug("In-page wait for {} ({})", locator != null ? locator : "document", condition);
+        Object result = ((JavascriptExecutor) driver)
+                .executeAsyncScript(WAIT_SCRIPT, using, value, condition, timeout.toMillis());
+        return result instanceof Boolean && !((Boolean) result) ? null : result;
+    }
+}
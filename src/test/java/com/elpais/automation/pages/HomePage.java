@@ -1,9 +1,11 @@
 package com.elpais.automation.pages;
 
+import com.elpais.automation.utils.ConsentStateStore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 // Page Object for El País home page
 public class HomePage extends BasePage {
@@ -13,11 +15,15 @@ public class HomePage extends BasePage {
     // Locators (more stable)
     private static final By OPINION_LINK =
             By.xpath("//a[contains(@href,'/opinion')] | //a[text()='Opinión']");
-    private static final By COOKIE_ACCEPT =
-            By.cssSelector("#didomi-notice-agree-button, button[id*='agree'], button[class*='agree']");
+    private static final String COOKIE_ACCEPT_CSS =
+            "#didomi-notice-agree-button, button[id*='agree'], button[class*='agree']";
+    private static final By COOKIE_ACCEPT = By.cssSelector(COOKIE_ACCEPT_CSS);
     private static final By HAMBURGER_MENU =
             By.cssSelector("#btn_hamb, .btn_hamb, #hamburger");
 
+    // Set once the banner was accepted or stored consent was injected
+    private boolean consentHandled;
+
     public HomePage(WebDriver driver) {
         super(driver);
     }
@@ -30,25 +36,57 @@ public class HomePage extends BasePage {
             logger.warn("Empty URL provided. Using default {}", url);
         }
 
+        boolean consentInjected = !consentHandled && ConsentStateStore.isEnabled()
+                && ConsentStateStore.apply(driver, url);
+
         logger.info("Navigating to {}", url);
         driver.get(url);
 
-        waitForPageLoad();
-        closeCookieBanner();
+        waitForPageReady(OPINION_LINK, HAMBURGER_MENU);
+
+        // The banner renders asynchronously, so ask the consent SDK rather than the DOM
+        Boolean consentRestored = consentInjected ? ConsentStateStore.isConsentRestored(driver) : null;
+        if (Boolean.TRUE.equals(consentRestored) && !isCookieBannerRendered()) {
+            consentHandled = true;
+            logger.info("Stored consent restored, skipping cookie banner");
+        } else {
+            if (consentRestored != null) {
+                logger.warn("Cookie banner shown despite stored consent, refreshing it");
+                ConsentStateStore.invalidate();
+            } else if (consentInjected) {
+                logger.info("Consent SDK not ready, handling the cookie banner");
+            }
+            closeCookieBanner();
+        }
     }
 
     // Close cookie banner
     public void closeCookieBanner() {
+        if (consentHandled) {
+            logger.debug("Consent already handled, skipping cookie banner");
+            return;
+        }
         try {
             if (waitForElementVisible(COOKIE_ACCEPT, 5)) {
                 clickElement(COOKIE_ACCEPT);
+                consentHandled = true;
                 logger.info("Cookie banner closed");
+
+                if (ConsentStateStore.isEnabled()) {
+                    ConsentStateStore.capture(driver);
+                }
             }
         } catch (Exception e) {
             logger.debug("Cookie banner not present");
         }
     }
 
+    // Check for the banner in the current DOM without waiting
+    private boolean isCookieBannerRendered() {
+        return Boolean.TRUE.equals(executeScript(
+                "return !!document.querySelector(arguments[0]);", COOKIE_ACCEPT_CSS));
+    }
+
     // Navigate to Opinion section
     public OpinionPage navigateToOpinionSection() {
 
@@ -57,11 +95,13 @@ public class HomePage extends BasePage {
         closeCookieBanner();
 
         try {
+            // Not resolved through the registry: the href branch of the union also matches article
+            // links, so the clickable check must see the same element the whole union finds
             if (waitForElementClickable(OPINION_LINK, 5)) {
                 clickElement(OPINION_LINK);
             } else {
                 logger.info("Opinion link hidden. Using menu");
-                clickElement(HAMBURGER_MENU);
+                clickElement(resolveLocator("hamburgerMenu", 5000, HAMBURGER_MENU));
                 waitForElementClickable(OPINION_LINK, 5);
                 clickElement(OPINION_LINK);
             }
@@ -71,7 +111,11 @@ public class HomePage extends BasePage {
             driver.get("https://elpais.com/opinion/");
         }
 
-        waitForPageLoad();
+        if (!isNormalPageLoad()) {
+            // The home page also renders articles, so wait for the navigation before the content
+            wait.until(ExpectedConditions.urlContains("/opinion"));
+        }
+        waitForPageReady(OpinionPage.ARTICLE_ITEMS, By.tagName("article"));
         return new OpinionPage(driver);
     }
 
@@ -0,0 +1,148 @@
+package com.elpais.automation.pages;
+
+import com.elpais.automation.config.ConfigManager;
+import com.elpais.automation.utils.HtmlElement;
+import com.elpais.automation.utils.HtmlParser;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Browserless article source: fetches the Opinion listing over plain HTTP and applies the same
+// selectors and field rules as OpinionPage to the server-rendered HTML
+public class HttpArticleSource implements ArticleSource {
+    private static final Logger logger = LogManager.getLogger(HttpArticleSource.class);
+
+    static final String DEFAULT_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) "
+            + "AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private final String listingUrl;
+
+    public HttpArticleSource() {
+        this(ConfigManager.get("app.opinionUrl", "https://elpais.com/opinion/"));
+    }
+
+    public HttpArticleSource(String listingUrl) {
+        this.listingUrl = listingUrl;
+    }
+
+    @Override
+    public List<OpinionPage.ArticleData> getTopArticles(int count) {
+        logger.info("Getting top {} articles over HTTP from {}", count, listingUrl);
+        long start = System.currentTimeMillis();
+        String html = fetch(listingUrl);
+        long fetched = System.currentTimeMillis();
+
+        List<OpinionPage.ArticleData> articles = parseArticles(html, listingUrl, count);
+        logger.info("HTTP scrape: {} articles, fetch {} ms, parse {} ms ({} KB)", articles.size(),
+                fetched - start, System.currentTimeMillis() - fetched, html.length() / 1024);
+        return articles;
+    }
+
+    // Extract the first N articles from listing HTML; mirrors OpinionPage.getTopArticlesPerElement
+    static List<OpinionPage.ArticleData> parseArticles(String html, String pageUrl, int count) {
+        HtmlElement document = HtmlParser.parse(html);
+        List<HtmlElement> items = document.select(OpinionPage.ARTICLE_ITEMS_CSS);
+        if (items.isEmpty()) {
+            items = document.select("article");
+        }
+
+        List<OpinionPage.ArticleData> articles = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, items.size()); i++) {
+            HtmlElement article = items.get(i);
+
+            String title = textOf(first(article, OpinionPage.ARTICLE_TITLE_CSS, "h2"));
+            String content = textOf(first(article, OpinionPage.ARTICLE_CONTENT_CSS));
+
+            String imageUrl = "";
+            HtmlElement img = first(article, OpinionPage.ARTICLE_IMAGE_CSS, "img");
+            if (img != null) {
+                // WebElement.getAttribute("src") reports the resolved property; data-src and srcset are raw
+                imageUrl = img.hasAttr("src") ? resolve(pageUrl, img.attr("src")) : "";
+
+                String dataSrc = img.attr("data-src");
+                if (dataSrc != null && !dataSrc.isEmpty()) {
+                    imageUrl = dataSrc;
+                }
+
+                String srcset = img.attr("srcset");
+                if (srcset != null && !srcset.isEmpty()) {
+                    imageUrl = srcset.split(",")[0].trim().split(" ")[0];
+                }
+
+                imageUrl = OpinionPage.toAbsoluteUrl(imageUrl);
+            }
+
+            HtmlElement link = first(article, OpinionPage.ARTICLE_LINK_CSS);
+            String articleUrl = link != null && link.hasAttr("href") ? resolve(pageUrl, link.attr("href")) : "";
+
+            if (!title.isEmpty()) {
+                articles.add(new OpinionPage.ArticleData(title, content, imageUrl, articleUrl));
+                logger.info("Article {} scraped: {}", i + 1, title);
+            } else {
+                logger.debug("Could not find title for article {}", i);
+            }
+        }
+        return articles;
+    }
+
+    // First match of the first selector that matches anything, like BasePage.findFirst
+    private static HtmlElement first(HtmlElement context, String... selectors) {
+        for (String selector : selectors) {
+            HtmlElement match = context.selectFirst(selector);
+            if (match != null) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private static String textOf(HtmlElement element) {
+        return element != null ? element.text() : "";
+    }
+
+    private static String resolve(String base, String url) {
+        try {
+            return URI.create(base).resolve(url.trim()).toString();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static String fetch(String url) {
+        int timeoutMs = ConfigManager.getInt("scrape.http.timeoutMs", 15000);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMs)
+                .setSocketTimeout(timeoutMs)
+                .build();
+
+        try (CloseableHttpClient httpClient = HttpClients.custom().setDefaultRequestConfig(requestConfig).build()) {
+            HttpGet get = new HttpGet(url);
+            get.setHeader("User-Agent", ConfigManager.get("scrape.http.userAgent", DEFAULT_USER_AGENT));
+            get.setHeader("Accept", "text/html,application/xhtml+xml");
+            get.setHeader("Accept-Language", "es-ES,es;q=0.9");
+
+            try (CloseableHttpResponse response = httpClient.execute(get)) {
+                int status = response.getStatusLine().getStatusCode();
+                String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+                if (status != 200) {
+                    throw new IllegalStateException("HTTP " + status + " for " + url);
+                }
+                return body;
+            }
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to fetch {}", url, e);
+            throw new RuntimeException("Fetching " + url + " failed", e);
+        }
+    }
+}
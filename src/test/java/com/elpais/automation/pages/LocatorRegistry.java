@@ -0,0 +1,304 @@
+package com.elpais.automation.pages;
+
+import com.elpais.automation.config.ConfigManager;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Remembers which concrete strategy of a fallback chain found each logical element, so later
+// lookups (and later runs, through the persisted file) try the usual winner first. Only adjacent
+// strategies of equal CSS specificity are treated as interchangeable and reordered; a more general
+// fallback (a bare img after img.c_m_e) keeps its declared place behind the strategies it backs up,
+// and strategies of unknown specificity (XPath) are never moved. Within such a run, a strategy is
+// demoted after locators.demoteAfter lookups in a row in which it missed and another one matched.
+// Lookups in which nothing matched only count as not found: the element may simply be absent.
+public class LocatorRegistry {
+    private static final Logger logger = LogManager.getLogger(LocatorRegistry.class);
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final Type STORE_TYPE = new TypeToken<Map<String, Element>>() { }.getType();
+
+    private static final String CSS_PREFIX = "By.cssSelector: ";
+    private static final String XPATH_PREFIX = "By.xpath: ";
+
+    private static Map<String, Element> elements;
+
+    private LocatorRegistry() {
+    }
+
+    // Whether page objects order their fallback chains by past results; DriverManager then starts
+    // sessions with a zero implicit wait, so a strategy that misses costs one findElements call
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("feature.locatorRegistry", false);
+    }
+
+    // Concrete strategies for the locators, split at top-level CSS commas and XPath unions; each run
+    // of interchangeable strategies is ordered by the recorded results for the key
+    public static synchronized List<By> order(String key, By... locators) {
+        List<By> strategies = new ArrayList<>();
+        for (By locator : locators) {
+            strategies.addAll(expand(locator));
+        }
+        Element element = elements().get(key);
+        if (element == null) {
+            return strategies;
+        }
+        int demoteAfter = ConfigManager.getInt("locators.demoteAfter", 2);
+        // Stable sort: demoted strategies last, then the most hits first, then declared order
+        Comparator<By> byResults = Comparator.<By>comparingInt(by -> element.stats(by).consecutiveMisses >= demoteAfter ? 1 : 0)
+                .thenComparingLong(by -> -element.stats(by).hits);
+        List<By> ordered = new ArrayList<>(strategies.size());
+        int start = 0;
+        while (start < strategies.size()) {
+            int specificity = specificity(strategies.get(start));
+            int end = start + 1;
+            while (specificity >= 0 && end < strategies.size() && specificity(strategies.get(end)) == specificity) {
+                end++;
+            }
+            List<By> interchangeable = new ArrayList<>(strategies.subList(start, end));
+            interchangeable.sort(byResults);
+            ordered.addAll(interchangeable);
+            start = end;
+        }
+        return ordered;
+    }
+
+    // Record a lookup over the ordered strategies; winner is the index that matched, or -1
+    public static synchronized void record(String key, List<By> ordered, int winner) {
+        Element element = elements().computeIfAbsent(key, k -> new Element());
+        element.lookups++;
+        if (winner < 0) {
+            element.notFound++;
+            return;
+        }
+        if (winner == 0) {
+            element.firstChoiceHits++;
+        } else {
+            element.fallbackHits++;
+        }
+        for (int i = 0; i < winner; i++) {
+            Strategy missed = element.stats(ordered.get(i));
+            missed.misses++;
+            missed.consecutiveMisses++;
+        }
+        Strategy hit = element.stats(ordered.get(winner));
+        hit.hits++;
+        hit.consecutiveMisses = 0;
+        hit.lastHit = System.currentTimeMillis();
+    }
+
+    // Persist the registry; safe to call after every test
+    public static synchronized void save() {
+        if (elements == null || elements.isEmpty()) {
+            return;
+        }
+        Path path = getStorePath();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                gson.toJson(new TreeMap<>(elements), STORE_TYPE, writer);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to save locator registry to {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Log first-choice, fallback and not-found counts per element
+    public static synchronized void logStats() {
+        for (Map.Entry<String, Element> entry : new TreeMap<>(elements()).entrySet()) {
+            Element element = entry.getValue();
+            logger.info("Locator {}: {} lookups, {} first choice, {} fallback, {} not found",
+                    entry.getKey(), element.lookups, element.firstChoiceHits, element.fallbackHits, element.notFound);
+        }
+    }
+
+    // Split a compound CSS selector list or XPath union into its alternatives
+    static List<By> expand(By locator) {
+        String description = locator.toString();
+        List<By> alternatives = new ArrayList<>();
+        if (description.startsWith(CSS_PREFIX)) {
+            for (String part : splitTopLevel(description.substring(CSS_PREFIX.length()), ',')) {
+                alternatives.add(By.cssSelector(part));
+            }
+        } else if (description.startsWith(XPATH_PREFIX)) {
+            for (String part : splitTopLevel(description.substring(XPATH_PREFIX.length()), '|')) {
+                alternatives.add(By.xpath(part));
+            }
+        }
+        if (alternatives.size() < 2) {
+            alternatives.clear();
+            alternatives.add(locator);
+        }
+        return alternatives;
+    }
+
+    // CSS specificity (ids, then classes, attributes and pseudo-classes, then types) packed into one
+    // comparable int; -1 when it cannot be told, as for XPath and link text
+    static int specificity(By locator) {
+        String description = locator.toString();
+        if (description.startsWith(CSS_PREFIX)) {
+            return cssSpecificity(description.substring(CSS_PREFIX.length()));
+        } else if (description.startsWith("By.id: ")) {
+            return 10000;
+        } else if (description.startsWith("By.className: ")) {
+            return 100;
+        } else if (description.startsWith("By.tagName: ")) {
+            return 1;
+        }
+        return -1;
+    }
+
+    private static int cssSpecificity(String selector) {
+        int ids = 0;
+        int classes = 0;
+        int types = 0;
+        boolean compoundStart = true;
+        for (int i = 0; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (c == ' ' || c == '>' || c == '+' || c == '~') {
+                compoundStart = true;
+                continue;
+            }
+            if (c == '#') {
+                ids++;
+            } else if (c == '.') {
+                classes++;
+            } else if (c == '[') {
+                classes++;
+                i = skipGroup(selector, i, '[', ']');
+            } else if (c == ':') {
+                classes++;
+                while (i + 1 < selector.length() && selector.charAt(i + 1) != '(' && !isSelectorBoundary(selector.charAt(i + 1))) {
+                    i++;
+                }
+                if (i + 1 < selector.length() && selector.charAt(i + 1) == '(') {
+                    i = skipGroup(selector, i + 1, '(', ')');
+                }
+            } else if (compoundStart && Character.isLetter(c)) {
+                types++;
+            }
+            compoundStart = false;
+        }
+        return Math.min(ids, 99) * 10000 + Math.min(classes, 99) * 100 + Math.min(types, 99);
+    }
+
+    private static boolean isSelectorBoundary(char c) {
+        return c == ' ' || c == '>' || c == '+' || c == '~' || c == '.' || c == '#' || c == '[' || c == ':';
+    }
+
+    // Index of the character closing the group opened at start, skipping quoted text and nested groups
+    private static int skipGroup(String expression, int start, char open, char close) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = start; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == open) {
+                depth++;
+            } else if (c == close && --depth == 0) {
+                return i;
+            }
+        }
+        return expression.length() - 1;
+    }
+
+    // Split on the separator outside quotes, brackets and parentheses
+    private static List<String> splitTopLevel(String expression, char separator) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[' || c == '(') {
+                depth++;
+            } else if (c == ']' || c == ')') {
+                depth--;
+            } else if (c == separator && depth == 0) {
+                parts.add(expression.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        parts.add(expression.substring(start).trim());
+        parts.removeIf(String::isEmpty);
+        return parts;
+    }
+
+    private static Map<String, Element> elements() {
+        if (elements == null) {
+            elements = load();
+        }
+        return elements;
+    }
+
+    private static Map<String, Element> load() {
+        Path path = getStorePath();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                Map<String, Element> stored = gson.fromJson(reader, STORE_TYPE);
+                if (stored != null) {
+                    logger.info("Loaded locator registry with {} elements from {}", stored.size(), path);
+                    return new LinkedHashMap<>(stored);
+                }
+            } catch (Exception e) {
+                logger.warn("Unreadable locator registry at {}: {}", path, e.getMessage());
+            }
+        }
+        return new LinkedHashMap<>();
+    }
+
+    private static Path getStorePath() {
+        return Paths.get(ConfigManager.get("locators.store.path", "./locators/locator-registry.json"));
+    }
+
+    // Serialized results for one logical element; strategies are keyed by By.toString()
+    private static class Element {
+        long lookups;
+        long firstChoiceHits;
+        long fallbackHits;
+        long notFound;
+        Map<String, Strategy> strategies = new LinkedHashMap<>();
+
+        Strategy stats(By locator) {
+            if (strategies == null) {
+                strategies = new LinkedHashMap<>();
+            }
+            return strategies.computeIfAbsent(locator.toString(), k -> new Strategy());
+        }
+    }
+
+    private static class Strategy {
+        long hits;
+        long misses;
+        int consecutiveMisses;
+        long lastHit;
+    }
+}
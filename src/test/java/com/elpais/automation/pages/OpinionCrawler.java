@@ -0,0 +1,186 @@
+package com.elpais.automation.pages;
+
+import com.elpais.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Breadth-first crawl of the Opinion section in a single session: each listing page is scrolled
+// until it stops loading articles, its articles are collected into a frontier deduplicated by
+// articleUrl, and its pagination, section and author links are queued one level deeper.
+// Stops at the article, depth, page and time budgets, whichever is reached first.
+public class OpinionCrawler extends BasePage {
+    private static final Logger logger = LogManager.getLogger(OpinionCrawler.class);
+
+    private static final String LINKS_SCRIPT =
+            "return Array.prototype.map.call("
+            + "document.querySelectorAll('a[href], link[rel=next][href]'), function (a) { return a.href; });";
+
+    private final Pattern followPattern;
+    private final Pattern articlePattern;
+    private final int maxDepth;
+    private final int maxPages;
+    private final long timeBudgetMs;
+    private final int maxScrolls;
+    private final long scrollWaitMs;
+
+    public OpinionCrawler(WebDriver driver) {
+        super(driver);
+        this.followPattern = Pattern.compile(ConfigManager.get("crawl.followPattern",
+                "^https://elpais\\.com/(opinion|autor)/.*"));
+        this.articlePattern = Pattern.compile(ConfigManager.get("crawl.articlePattern",
+                "/\\d{4}-\\d{2}-\\d{2}/"));
+        this.maxDepth = ConfigManager.getInt("crawl.maxDepth", 1);
+        this.maxPages = ConfigManager.getInt("crawl.maxPages", 5);
+        this.timeBudgetMs = ConfigManager.getLong("crawl.timeBudgetSec", 120) * 1000;
+        this.maxScrolls = ConfigManager.getInt("crawl.maxScrollsPerPage", 3);
+        this.scrollWaitMs = ConfigManager.getLong("crawl.scrollWaitMs", 2000);
+    }
+
+    // Crawl from the listing URL until maxArticles unique articles are collected or a budget runs out
+    public CrawlResult crawl(String startUrl, int maxArticles) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeBudgetMs;
+
+        Map<String, OpinionPage.ArticleData> articles = new LinkedHashMap<>();
+        Deque<PageTask> frontier = new ArrayDeque<>();
+        Set<String> queued = new HashSet<>();
+        frontier.add(new PageTask(normalize(startUrl), 0));
+        queued.add(normalize(startUrl));
+
+        int pagesVisited = 0;
+        String stopReason = "frontier exhausted";
+        boolean first = true;
+
+        while (!frontier.isEmpty()) {
+            if (articles.size() >= maxArticles) {
+                stopReason = "article budget";
+                break;
+            }
+            if (pagesVisited >= maxPages) {
+                stopReason = "page budget";
+                break;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                stopReason = "time budget";
+                break;
+            }
+
+            PageTask task = frontier.poll();
+            try {
+                driver.get(task.url);
+                waitForPageReady(OpinionPage.ARTICLE_ITEMS, By.tagName("article"));
+                if (first) {
+                    new HomePage(driver).closeCookieBanner();
+                    first = false;
+                }
+                pagesVisited++;
+
+                OpinionPage page = new OpinionPage(driver);
+                page.loadMoreArticles(maxScrolls, scrollWaitMs);
+                int added = 0;
+                for (OpinionPage.ArticleData article : page.extractLoadedArticles()) {
+                    String key = normalizeArticle(article.articleUrl);
+                    if (!key.isEmpty() && !articles.containsKey(key) && articles.size() < maxArticles) {
+                        articles.put(key, article);
+                        added++;
+                    }
+                }
+
+                int queuedLinks = 0;
+                if (task.depth < maxDepth) {
+                    queuedLinks = enqueueLinks(task.depth + 1, frontier, queued);
+                }
+                logger.info("Crawled {} (depth {}): {} new articles, {} total, {} links queued",
+                        task.url, task.depth, added, articles.size(), queuedLinks);
+            } catch (Exception e) {
+                logger.warn("Skipping {}: {}", task.url, e.getMessage());
+            }
+        }
+
+        // The last page may have filled the budget just as the frontier ran out
+        if (articles.size() >= maxArticles) {
+            stopReason = "article budget";
+        }
+
+        CrawlResult result = new CrawlResult(new ArrayList<>(articles.values()), pagesVisited,
+                System.currentTimeMillis() - start, stopReason);
+        logger.info("Crawl finished ({}): {} articles from {} pages in {} s, {} articles/min",
+                stopReason, result.articles.size(), pagesVisited, result.elapsedMillis / 1000,
+                String.format("%.1f", result.getArticlesPerMinute()));
+        return result;
+    }
+
+    // Queue unseen listing links (pagination, sections, authors) found on the current page
+    @SuppressWarnings("unchecked")
+    private int enqueueLinks(int depth, Deque<PageTask> frontier, Set<String> queued) {
+        Object links = executeScript(LINKS_SCRIPT);
+        if (!(links instanceof List)) {
+            return 0;
+        }
+        int added = 0;
+        for (Object link : (List<Object>) links) {
+            String url = normalize(String.valueOf(link));
+            if (followPattern.matcher(url).matches() && !articlePattern.matcher(url).find() && queued.add(url)) {
+                frontier.add(new PageTask(url, depth));
+                added++;
+            }
+        }
+        return added;
+    }
+
+    // Listing pages are compared without their fragment
+    private static String normalize(String url) {
+        int hash = url.indexOf('#');
+        return hash >= 0 ? url.substring(0, hash) : url;
+    }
+
+    // Articles are compared without query string or fragment (tracking parameters)
+    private static String normalizeArticle(String url) {
+        if (url == null) {
+            return "";
+        }
+        String normalized = normalize(url);
+        int query = normalized.indexOf('?');
+        return query >= 0 ? normalized.substring(0, query) : normalized;
+    }
+
+    private static class PageTask {
+        private final String url;
+        private final int depth;
+
+        PageTask(String url, int depth) {
+            this.url = url;
+            this.depth = depth;
+        }
+    }
+
+    // Crawl outcome and throughput
+    public static class CrawlResult {
+        public final List<OpinionPage.ArticleData> articles;
+        public final int pagesVisited;
+        public final long elapsedMillis;
+        public final String stopReason;
+
+        CrawlResult(List<OpinionPage.ArticleData> articles, int pagesVisited, long elapsedMillis, String stopReason) {
+            this.articles = articles;
+            this.pagesVisited = pagesVisited;
+            this.elapsedMillis = elapsedMillis;
+            this.stopReason = stopReason;
+        }
+
+        public double getArticlesPerMinute() {
+            return elapsedMillis > 0 ? articles.size() * 60_000.0 / elapsedMillis : 0;
+        }
+    }
+}
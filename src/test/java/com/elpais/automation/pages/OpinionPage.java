@@ -1,23 +1,89 @@
 package com.elpais.automation.pages;
 
+import com.elpais.automation.config.ConfigManager;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 
 // Page Object for El País Opinion section
-public class OpinionPage extends BasePage {
+public class OpinionPage extends BasePage implements ArticleSource {
     private static final Logger logger = LogManager.getLogger(OpinionPage.class);
 
+    // Selector strings (shared by the WebDriver locators, the bulk extraction script and HttpArticleSource)
+    private static final String ARTICLE_ITEMS_XPATH = "//article[contains(@class, 'c c-o')]";
+    // CSS equivalent of ARTICLE_ITEMS_XPATH for engines without XPath
+    static final String ARTICLE_ITEMS_CSS = "article[class*='c c-o']";
+    static final String ARTICLE_TITLE_CSS = "h2.c_t, h2[class*='c_t'], h2 a";
+    static final String ARTICLE_CONTENT_CSS = "p.c_d, p[class*='c_d'], .c_d, .article_description";
+    static final String ARTICLE_LINK_CSS = "h2 a";
+    static final String ARTICLE_IMAGE_CSS = "img.c_m_e, img[class*='c_m_e'], img";
+
     // Locators
-    private static final By ARTICLE_ITEMS = By.xpath("//article[contains(@class, 'c c-o')]");
-    private static final By ARTICLE_TITLE = By.cssSelector("h2.c_t, h2[class*='c_t'], h2 a");
-    private static final By ARTICLE_CONTENT = By.cssSelector("p.c_d, p[class*='c_d'], .c_d, .article_description");
-    private static final By ARTICLE_LINK = By.cssSelector("h2 a");
-    private static final By ARTICLE_IMAGE = By.cssSelector("img.c_m_e, img[class*='c_m_e'], img");
+    static final By ARTICLE_ITEMS = By.xpath(ARTICLE_ITEMS_XPATH);
+    private static final By ARTICLE_TITLE = By.cssSelector(ARTICLE_TITLE_CSS);
+    private static final By ARTICLE_CONTENT = By.cssSelector(ARTICLE_CONTENT_CSS);
+    private static final By ARTICLE_LINK = By.cssSelector(ARTICLE_LINK_CSS);
+    private static final By ARTICLE_IMAGE = By.cssSelector(ARTICLE_IMAGE_CSS);
+
+    // Collects every ArticleData field for the first N articles in one round-trip.
+    // Mirrors the per-element path: ARTICLE_ITEMS -> article, ARTICLE_TITLE -> h2,
+    // ARTICLE_IMAGE -> img, src overridden by data-src, then by the first srcset entry.
+    private static final String BULK_EXTRACT_SCRIPT =
+            "var itemsXpath = arguments[0], titleCss = arguments[1], contentCss = arguments[2],"
+            + "    linkCss = arguments[3], imageCss = arguments[4], count = arguments[5];"
+            + "var snapshot = document.evaluate(itemsXpath, document, null,"
+            + "    XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "var nodes = [];"
+            + "for (var i = 0; i < snapshot.snapshotLength; i++) { nodes.push(snapshot.snapshotItem(i)); }"
+            + "if (nodes.length === 0) { nodes = Array.prototype.slice.call(document.getElementsByTagName('article')); }"
+            + "var text = function (el) { return el ? (el.innerText || el.textContent || '').trim() : ''; };"
+            + "var results = [];"
+            + "for (var j = 0; j < Math.min(count, nodes.length); j++) {"
+            + "  var article = nodes[j];"
+            + "  var titleEl = article.querySelector(titleCss) || article.querySelector('h2');"
+            + "  var img = article.querySelector(imageCss) || article.querySelector('img');"
+            + "  var imageUrl = '';"
+            + "  if (img) {"
+            + "    imageUrl = img.src || '';"
+            + "    var dataSrc = img.getAttribute('data-src');"
+            + "    if (dataSrc) { imageUrl = dataSrc; }"
+            + "    var srcset = img.getAttribute('srcset');"
+            + "    if (srcset) { imageUrl = srcset.split(',')[0].trim().split(' ')[0]; }"
+            + "  }"
+            + "  var link = article.querySelector(linkCss);"
+            + "  results.push({index: j, title: text(titleEl), content: text(article.querySelector(contentCss)),"
+            + "      imageUrl: imageUrl, articleUrl: link ? link.href : ''});"
+            + "}"
+            + "return JSON.stringify(results);";
+
+    // Scrolls to the bottom and resolves with the article count once it grows or the step times out
+    private static final String SCROLL_FOR_MORE_SCRIPT =
+            "var itemsXpath = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];"
+            + "var count = function () {"
+            + "  var n = document.evaluate('count(' + itemsXpath + ')', document, null,"
+            + "      XPathResult.NUMBER_TYPE, null).numberValue;"
+            + "  return n || document.getElementsByTagName('article').length;"
+            + "};"
+            + "var before = count(), deadline = Date.now() + timeoutMs;"
+            + "window.scrollTo(0, document.documentElement.scrollHeight);"
+            + "var poll = function () {"
+            + "  var now = count();"
+            + "  if (now > before || Date.now() >= deadline) { done(now); } else { setTimeout(poll, 100); }"
+            + "};"
+            + "poll();";
+
+    private static final Gson gson = new Gson();
 
     public OpinionPage(WebDriver driver) {
         super(driver);
@@ -45,95 +111,217 @@ public class OpinionPage extends BasePage {
     }
 
     // Get first N articles with their details
+    @Override
     public List<ArticleData> getTopArticles(int count) {
+        if (ConfigManager.getBoolean("feature.bulkExtraction", false)) {
+            return getTopArticlesBulk(count);
+        }
+        return getTopArticlesPerElement(count);
+    }
+
+    // Get first N articles querying each field with its own WebDriver call
+    public List<ArticleData> getTopArticlesPerElement(int count) {
         logger.info("Getting top {} articles", count);
         waitForArticlesLoad();
 
         List<ArticleData> articles = new ArrayList<>();
         List<WebElement> articleElements = getAllArticles();
+        preloadArticles(articleElements.subList(0, Math.min(count, articleElements.size())));
+        long lookupBudgetMs = ConfigManager.getLong("app.timeout.optionalLookupMs", 250);
 
         for (int i = 0; i < Math.min(count, articleElements.size()); i++) {
-            try {
-                WebElement article = articleElements.get(i);
-                scrollToElement(article);
-                Thread.sleep(2000); // Allow time for images/content to load after scroll
-
-                String title = "";
-                String content = "";
-                String imageUrl = "";
-                String articleUrl = "";
-
-                try {
-                    title = article.findElement(ARTICLE_TITLE).getText().trim();
-                } catch (Exception e) {
-                    logger.debug("Could not find title for article {} using default locator", i);
-                    try {
-                        title = article.findElement(By.tagName("h2")).getText().trim();
-                    } catch (Exception e2) {}
+            ArticleData data = extractArticle(articleElements.get(i), i, lookupBudgetMs);
+            if (data != null) {
+                articles.add(data);
+            }
+        }
+
+        return articles;
+    }
+
+    // Read one article's fields; null when it has no title
+    private ArticleData extractArticle(WebElement article, int i, long lookupBudgetMs) {
+        try {
+            String title = "";
+            String content = "";
+            String imageUrl = "";
+            String articleUrl = "";
+
+            WebElement titleElement = findFirst("title", article, lookupBudgetMs, ARTICLE_TITLE, By.tagName("h2"));
+            if (titleElement != null) {
+                title = titleElement.getText().trim();
+            } else {
+                logger.debug("Could not find title for article {}", i);
+            }
+
+            WebElement contentElement = findFirst("content", article, lookupBudgetMs, ARTICLE_CONTENT);
+            if (contentElement != null) {
+                content = contentElement.getText().trim();
+            } else {
+                logger.debug("Could not find content for article {}", i);
+            }
+
+            WebElement img = findFirst("image", article, lookupBudgetMs, ARTICLE_IMAGE, By.tagName("img"));
+            if (img != null) {
+                imageUrl = img.getAttribute("src");
+
+                // Check for lazy-loaded image sources
+                String dataSrc = img.getAttribute("data-src");
+                if (dataSrc != null && !dataSrc.isEmpty()) {
+                    imageUrl = dataSrc;
                 }
 
-                try {
-                    content = article.findElement(ARTICLE_CONTENT).getText().trim();
-                } catch (Exception e) {
-                    logger.debug("Could not find content for article {}", i);
+                // Handle high-res images from srcset
+                String srcset = img.getAttribute("srcset");
+                if (srcset != null && !srcset.isEmpty()) {
+                    // Take the last (usually highest res) or first
+                    String[] sources = srcset.split(",");
+                    imageUrl = sources[0].trim().split(" ")[0];
                 }
 
-                try {
-                    WebElement img = null;
-                    try {
-                        img = article.findElement(ARTICLE_IMAGE);
-                    } catch (Exception e) {
-                        img = article.findElement(By.tagName("img"));
-                    }
+                imageUrl = toAbsoluteUrl(imageUrl);
+            }
 
-                    if (img != null) {
-                        imageUrl = img.getAttribute("src");
-                        
-                        // Check for lazy-loaded image sources
-                        String dataSrc = img.getAttribute("data-src");
-                        if (dataSrc != null && !dataSrc.isEmpty()) {
-                            imageUrl = dataSrc;
-                        }
-                        
-                        // Handle high-res images from srcset
-                        String srcset = img.getAttribute("srcset");
-                        if (srcset != null && !srcset.isEmpty()) {
-                            // Take the last (usually highest res) or first
-                            String[] sources = srcset.split(",");
-                            imageUrl = sources[0].trim().split(" ")[0];
-                        }
-                    }
-                    
-                    // Ensure URL is absolute
-                    if (imageUrl != null && imageUrl.startsWith("//")) {
-                        imageUrl = "https:" + imageUrl;
+            if (imageUrl == null || imageUrl.isEmpty()) {
+                logger.debug("Image URL empty for article {}", i);
+            }
+
+            WebElement link = findFirst("link", article, lookupBudgetMs, ARTICLE_LINK);
+            if (link != null) {
+                articleUrl = link.getAttribute("href");
+            } else {
+                logger.debug("Could not find URL for article {}", i);
+            }
+
+            if (!title.isEmpty()) {
+                logger.info("Article {} scraped: {}", i + 1, title);
+                return new ArticleData(title, content, imageUrl, articleUrl);
+            }
+        } catch (Exception e) {
+            logger.warn("Error processing article at index {}", i, e);
+        }
+        return null;
+    }
+
+    // Scrape on the calling thread and publish each article as soon as it is extracted, so subscribers
+    // (run on the publisher's executor) overlap their work with the remaining scraping. Lazy content is
+    // awaited per article instead of for the whole batch up front. Scraping stops once count articles
+    // were published or the subscriber cancels. Returns the number of articles published.
+    @Override
+    public int streamTopArticles(int count, Flow.Subscriber<? super ArticleData> subscriber) {
+        logger.info("Streaming top {} articles", count);
+        long lookupBudgetMs = ConfigManager.getLong("app.timeout.optionalLookupMs", 250);
+        long lazyLoadMs = ConfigManager.getLong("app.timeout.lazyLoadMs", 5000);
+        int published = 0;
+
+        try (SubmissionPublisher<ArticleData> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(subscriber);
+            try {
+                waitForArticlesLoad();
+                List<WebElement> articleElements = getAllArticles();
+
+                for (int i = 0; i < articleElements.size() && published < count; i++) {
+                    if (!publisher.hasSubscribers()) {
+                        logger.info("Article stream cancelled after {} articles", published);
+                        break;
                     }
-                    
-                    if (imageUrl == null || imageUrl.isEmpty()) {
-                         logger.debug("Image URL empty for article {}", i);
+                    WebElement article = articleElements.get(i);
+                    waitForLazyContent(article, lazyLoadMs);
+                    ArticleData data = extractArticle(article, i, lookupBudgetMs);
+                    if (data != null) {
+                        publisher.submit(data);
+                        published++;
                     }
-                } catch (Exception e) {
-                    logger.debug("Could not find image for article {}", i);
                 }
+            } catch (RuntimeException e) {
+                publisher.closeExceptionally(e);
+                throw e;
+            }
+        }
+        return published;
+    }
 
-                try {
-                    articleUrl = article.findElement(ARTICLE_LINK).getAttribute("href");
-                } catch (Exception e) {
-                    logger.debug("Could not find URL for article {}", i);
-                }
+    // Get first N articles with a single executeScript call instead of one call per field
+    public List<ArticleData> getTopArticlesBulk(int count) {
+        logger.info("Getting top {} articles (bulk extraction)", count);
+        waitForArticlesLoad();
 
-                if (!title.isEmpty()) {
-                    articles.add(new ArticleData(title, content, imageUrl, articleUrl));
-                    logger.info("Article {} scraped: {}", i + 1, title);
-                }
-            } catch (Exception e) {
-                logger.warn("Error processing article at index {}", i, e);
+        List<WebElement> articleElements = getAllArticles();
+        preloadArticles(articleElements.subList(0, Math.min(count, articleElements.size())));
+
+        Object result = executeScript(BULK_EXTRACT_SCRIPT, ARTICLE_ITEMS_XPATH, ARTICLE_TITLE_CSS,
+                ARTICLE_CONTENT_CSS, ARTICLE_LINK_CSS, ARTICLE_IMAGE_CSS, count);
+
+        if (!(result instanceof String)) {
+            logger.warn("Bulk extraction returned no data, falling back to per-element extraction");
+            return getTopArticlesPerElement(count);
+        }
+        return parseBulkResult((String) result);
+    }
+
+    // Scroll to the bottom until no further articles load (infinite scroll), at most maxScrolls times,
+    // waiting up to stepTimeoutMs for new articles after each scroll; returns the article count
+    public int loadMoreArticles(int maxScrolls, long stepTimeoutMs) {
+        int loaded = getAllArticles().size();
+        for (int i = 0; i < maxScrolls; i++) {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(SCROLL_FOR_MORE_SCRIPT,
+                    ARTICLE_ITEMS_XPATH, stepTimeoutMs);
+            int now = result instanceof Number ? ((Number) result).intValue() : loaded;
+            if (now <= loaded) {
+                break;
+            }
+            logger.debug("Infinite scroll {}: {} -> {} articles", i + 1, loaded, now);
+            loaded = now;
+        }
+        return loaded;
+    }
+
+    // Every article currently in the DOM, extracted in one round-trip without waiting for lazy images
+    // (data-src and srcset still give the image URL)
+    public List<ArticleData> extractLoadedArticles() {
+        Object result = executeScript(BULK_EXTRACT_SCRIPT, ARTICLE_ITEMS_XPATH, ARTICLE_TITLE_CSS,
+                ARTICLE_CONTENT_CSS, ARTICLE_LINK_CSS, ARTICLE_IMAGE_CSS, Integer.MAX_VALUE);
+        return result instanceof String ? parseBulkResult((String) result) : new ArrayList<>();
+    }
+
+    private List<ArticleData> parseBulkResult(String result) {
+        List<ArticleData> articles = new ArrayList<>();
+        JsonArray items = gson.fromJson(result, JsonArray.class);
+        for (JsonElement item : items) {
+            JsonObject json = item.getAsJsonObject();
+            int index = json.get("index").getAsInt();
+            String title = json.get("title").getAsString();
+            String imageUrl = toAbsoluteUrl(json.get("imageUrl").getAsString());
+
+            if (imageUrl.isEmpty()) {
+                logger.debug("Image URL empty for article {}", index);
+            }
+
+            if (!title.isEmpty()) {
+                articles.add(new ArticleData(title, json.get("content").getAsString(), imageUrl,
+                        json.get("articleUrl").getAsString()));
+                logger.info("Article {} scraped: {}", index + 1, title);
             }
         }
 
         return articles;
     }
 
+    // Scroll through the articles once and wait only until their images and text have loaded
+    private void preloadArticles(List<WebElement> articleElements) {
+        long timeoutMs = ConfigManager.getLong("app.timeout.lazyLoadMs", 5000);
+        int ready = waitForLazyContent(articleElements, timeoutMs);
+        logger.info("{} of {} articles ready after lazy-load wait", ready, articleElements.size());
+    }
+
+    // Ensure protocol-relative URLs are absolute
+    static String toAbsoluteUrl(String url) {
+        if (url != null && url.startsWith("//")) {
+            return "https:" + url;
+        }
+        return url;
+    }
+
     // Article data holder class
     public static class ArticleData {
         public String title;
@@ -141,6 +329,8 @@ public class OpinionPage extends BasePage {
         public String imageUrl;
         public String articleUrl;
         public String translatedTitle;
+        // Full article text, filled in by ArticleBodyFetcher
+        public String body;
 
         public ArticleData(String title, String content, String imageUrl, String articleUrl) {
             this.title = title;
@@ -149,6 +339,13 @@ public class OpinionPage extends BasePage {
             this.articleUrl = articleUrl;
         }
 
+        // Copy with all fields, including translation and body
+        public ArticleData(ArticleData other) {
+            this(other.title, other.content, other.imageUrl, other.articleUrl);
+            this.translatedTitle = other.translatedTitle;
+            this.body = other.body;
+        }
+
         @Override
         public String toString() {
             return "ArticleData{" +
@@ -157,6 +354,7 @@ public class OpinionPage extends BasePage {
                     ", imageUrl='" + imageUrl + '\'' +
                     ", articleUrl='" + articleUrl + '\'' +
                     ", translatedTitle='" + translatedTitle + '\'' +
+                    ", body=" + (body != null ? body.length() + " chars" : "null") +
                     '}';
         }
     }
@@ -0,0 +1,123 @@
+package com.elpais.automation.pages;
+
+import com.elpais.automation.config.ConfigManager;
+import com.google.gson.Gson;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-navigation performance capture: Navigation/Resource Timing from the page and, on Chrome,
+// DevTools Performance.getMetrics; one JSON line per navigation under results.path
+public class PageMetrics {
+    private static final Logger logger = LogManager.getLogger(PageMetrics.class);
+    private static final Gson gson = new Gson();
+
+    // Times are milliseconds from navigation start; transfer sizes are 0 for cross-origin
+    // resources without Timing-Allow-Origin, and the resource list is capped by the browser's
+    // resource timing buffer (250 entries by default)
+    private static final String TIMING_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];"
+            + "var resources = performance.getEntriesByType('resource');"
+            + "var transferred = nav ? nav.transferSize || 0 : 0, decoded = nav ? nav.decodedBodySize || 0 : 0;"
+            + "resources.forEach(function (r) { transferred += r.transferSize || 0; decoded += r.decodedBodySize || 0; });"
+            + "return {"
+            + "  url: location.href,"
+            + "  readyState: document.readyState,"
+            + "  ttfbMs: nav ? Math.round(nav.responseStart) : null,"
+            + "  domContentLoadedMs: nav ? Math.round(nav.domContentLoadedEventEnd) : null,"
+            + "  loadMs: nav ? Math.round(nav.loadEventEnd) : null,"
+            + "  transferredBytes: transferred,"
+            + "  decodedBytes: decoded,"
+            + "  resourceCount: resources.length"
+            + "};";
+
+    private PageMetrics() {
+    }
+
+    // Whether page objects record metrics after their navigations
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("feature.pageMetrics", false);
+    }
+
+    // Capture metrics for the current document and append them to the metrics file
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> capture(WebDriver driver, String label) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("label", label);
+        record.put("timestamp", System.currentTimeMillis());
+        record.put("thread", Thread.currentThread().getName());
+        if (driver instanceof HasCapabilities) {
+            record.put("browser", ((HasCapabilities) driver).getCapabilities().getBrowserName());
+        }
+
+        try {
+            Object timing = ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+            if (timing instanceof Map) {
+                record.putAll((Map<String, Object>) timing);
+            }
+        } catch (Exception e) {
+            logger.debug("Navigation timing unavailable: {}", e.getMessage());
+        }
+
+        Map<String, Object> devToolsMetrics = getDevToolsMetrics(driver);
+        if (!devToolsMetrics.isEmpty()) {
+            record.put("devtools", devToolsMetrics);
+        }
+
+        logger.info("Page metrics {} ({}): TTFB {} ms, DOMContentLoaded {} ms, load {} ms, {} KB in {} resources",
+                label, record.get("url"), record.get("ttfbMs"), record.get("domContentLoadedMs"),
+                record.get("loadMs"), toKb(record.get("transferredBytes")), record.get("resourceCount"));
+        append(record);
+        return record;
+    }
+
+    // Performance.getMetrics as name -> value; empty when the driver has no DevTools access
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getDevToolsMetrics(WebDriver driver) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (!(driver instanceof HasCdp)) {
+            return metrics;
+        }
+        try {
+            HasCdp cdp = (HasCdp) driver;
+            // Enabling an already enabled domain is a no-op
+            cdp.executeCdpCommand("Performance.enable", Map.of());
+            Object result = cdp.executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics");
+            if (result instanceof List) {
+                for (Map<String, Object> metric : (List<Map<String, Object>>) result) {
+                    metrics.put(String.valueOf(metric.get("name")), metric.get("value"));
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("DevTools metrics unavailable: {}", e.getMessage());
+        }
+        return metrics;
+    }
+
+    private static synchronized void append(Map<String, Object> record) {
+        Path file = Paths.get(ConfigManager.get("results.path", "./results"), "page-metrics.jsonl");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, (gson.toJson(record) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Could not write page metrics {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Object toKb(Object bytes) {
+        return bytes instanceof Number ? ((Number) bytes).longValue() / 1024 : bytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.elpais.automation.pages;
+
+import com.elpais.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Scrapes several sections in one session: each section gets its own tab, all tabs of a batch start
+// loading back-to-back so their network work overlaps, and each is then brought to the front and
+// extracted with the OpinionPage logic. The cookie banner is accepted on the very first tab before
+// any other is opened, so the rest load with consent stored. The tab the session was on is left
+// untouched and active again afterwards.
+public class SectionTabScraper extends BasePage {
+    private static final Logger logger = LogManager.getLogger(SectionTabScraper.class);
+
+    private static final String DEFAULT_SECTION_URLS =
+            "https://elpais.com/opinion/,https://elpais.com/internacional/,https://elpais.com/economia/";
+
+    // Starts the navigation after the script returns, so the call does not wait for the page load
+    private static final String START_NAVIGATION_SCRIPT =
+            "var url = arguments[0]; setTimeout(function () { location.assign(url); }, 0);";
+
+    private final int maxTabs;
+
+    public SectionTabScraper(WebDriver driver) {
+        super(driver);
+        this.maxTabs = Math.max(1, ConfigManager.getInt("sections.maxTabs", 4));
+    }
+
+    // Section URLs from sections.urls (comma-separated)
+    public static List<String> getConfiguredSections() {
+        return Arrays.stream(ConfigManager.get("sections.urls", DEFAULT_SECTION_URLS).split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    // Top count articles of each section, keyed by section URL in the given order; a section that
+    // fails to load maps to an empty list
+    public Map<String, List<OpinionPage.ArticleData>> scrapeSections(List<String> sectionUrls, int count) {
+        long start = System.currentTimeMillis();
+        String originalHandle = driver.getWindowHandle();
+        boolean bannerChecked = false;
+        Map<String, List<OpinionPage.ArticleData>> results = new LinkedHashMap<>();
+
+        for (int from = 0; from < sectionUrls.size(); from += maxTabs) {
+            List<String> batch = sectionUrls.subList(from, Math.min(from + maxTabs, sectionUrls.size()));
+
+            // Open every tab of the batch first, then extract them one by one
+            List<String> handles = new ArrayList<>();
+            for (String url : batch) {
+                driver.switchTo().newWindow(WindowType.TAB);
+                handles.add(driver.getWindowHandle());
+                executeScript(START_NAVIGATION_SCRIPT, url);
+                logger.debug("Started loading {} in a new tab", url);
+                if (!bannerChecked) {
+                    // Consent is stored when accepted, so accept it before the other tabs start loading
+                    bannerChecked = acceptConsent(url);
+                }
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                String url = batch.get(i);
+                driver.switchTo().window(handles.get(i));
+                bringToFront();
+                try {
+                    waitForSection();
+                    List<OpinionPage.ArticleData> articles = new OpinionPage(driver).getTopArticles(count);
+                    results.put(url, articles);
+                    logger.info("Section {}: {} articles", url, articles.size());
+                } catch (Exception e) {
+                    logger.warn("Section {} failed: {}", url, e.getMessage());
+                    results.put(url, new ArrayList<>());
+                } finally {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(originalHandle);
+        }
+
+        int total = results.values().stream().mapToInt(List::size).sum();
+        logger.info("Scraped {} articles from {} sections in {} ms ({} tabs at a time)",
+                total, results.size(), System.currentTimeMillis() - start, maxTabs);
+        return results;
+    }
+
+    // Wait for the current tab's section page; the new tab reports about:blank until the navigation commits
+    private void waitForSection() {
+        wait.until(d -> !d.getCurrentUrl().startsWith("about:"));
+        waitForPageReady(OpinionPage.ARTICLE_ITEMS, By.tagName("article"));
+    }
+
+    // Accept the cookie banner in the current tab once its section has loaded; false if it did not load
+    private boolean acceptConsent(String url) {
+        try {
+            waitForSection();
+            new HomePage(driver).closeCookieBanner();
+            return true;
+        } catch (Exception e) {
+            logger.warn("Section {} did not load for the cookie banner: {}", url, e.getMessage());
+            return false;
+        }
+    }
+}
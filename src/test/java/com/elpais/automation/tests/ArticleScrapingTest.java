@@ -1,13 +1,26 @@
 package com.elpais.automation.tests;
 
 import com.elpais.automation.drivers.DriverManager;
+import com.elpais.automation.pages.ArticleBodyFetcher;
+import com.elpais.automation.pages.ArticleSource;
+import com.elpais.automation.pages.BasePage;
 import com.elpais.automation.pages.HomePage;
+import com.elpais.automation.pages.HttpArticleSource;
+import com.elpais.automation.pages.LocatorRegistry;
+import com.elpais.automation.pages.OpinionCrawler;
 import com.elpais.automation.pages.OpinionPage;
+import com.elpais.automation.pages.SectionTabScraper;
 import com.elpais.automation.config.ConfigManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
+import org.testng.SkipException;
 import org.testng.annotations.*;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 // Test class for article scraping functionality
 public class ArticleScrapingTest {
@@ -18,33 +31,50 @@ public class ArticleScrapingTest {
     private String os;
     private String osVersion;
     private String resolution;
+    private String scrapeEngine;
 
-    @Parameters({"env", "browserName", "browserVersion", "os", "osVersion", "resolution"})
+    @Parameters({"env", "browserName", "browserVersion", "os", "osVersion", "resolution", "scrapeEngine"})
     @BeforeMethod
     public void setUp(@Optional("local") String env,
                       @Optional("chrome") String browserName,
                       @Optional("latest") String browserVersion,
                       @Optional("Windows") String os,
                       @Optional("11") String osVersion,
-                      @Optional("1920x1080") String resolution) {
+                      @Optional("1920x1080") String resolution,
+                      @Optional("") String scrapeEngine) {
         this.env = env;
         this.browserName = browserName;
         this.browserVersion = browserVersion;
         this.os = os;
         this.osVersion = osVersion;
         this.resolution = resolution;
+        this.scrapeEngine = scrapeEngine.isEmpty() ? ConfigManager.get("scrape.engine", "browser") : scrapeEngine;
 
-        logger.info("Starting test with: env={}, browser={}, os={}", env, browserName, os);
-        DriverManager.initializeDriver(env, browserName, browserVersion, os, osVersion, resolution);
+        logger.info("Starting test with: env={}, browser={}, os={}, engine={}", env, browserName, os, this.scrapeEngine);
     }
 
-    @Test(description = "Test article scraping from El País Opinion section")
-    public void testArticleScraping() {
-        logger.info("Test: Article Scraping");
+    // The browser is started on first use, so tests served by the article snapshot never launch one
+    private WebDriver driver() {
+        if (!DriverManager.hasDriver()) {
+            DriverManager.initializeDriver(env, browserName, browserVersion, os, osVersion, resolution);
+        }
+        return DriverManager.getDriver();
+    }
+
+    // The http engine scrapes the listing HTML without starting a browser
+    private boolean isHttpEngine() {
+        return "http".equalsIgnoreCase(scrapeEngine);
+    }
+
+    // Opinion listing source for the selected engine; the browser engine navigates there through the home page
+    private ArticleSource openOpinionSection() {
+        if (isHttpEngine()) {
+            return new HttpArticleSource();
+        }
         String appUrl = ConfigManager.get("app.url");
 
         // Navigate to home page
-        HomePage homePage = new HomePage(DriverManager.getDriver());
+        HomePage homePage = new HomePage(driver());
         homePage.navigate(appUrl);
 
         // Verify home page is loaded
@@ -55,10 +85,25 @@ public class ArticleScrapingTest {
         OpinionPage opinionPage = homePage.navigateToOpinionSection();
         opinionPage.waitForArticlesLoad();
         logger.info("Opinion page loaded successfully");
+        return opinionPage;
+    }
+
+    // Top articles of the Opinion section, from the suite-wide snapshot when it is enabled
+    private List<OpinionPage.ArticleData> topArticles(int count) {
+        if (!ArticleSnapshot.isEnabled()) {
+            return openOpinionSection().getTopArticles(count);
+        }
+        String key = ArticleSnapshot.key(env, browserName, browserVersion, os, osVersion, resolution, "", scrapeEngine);
+        return ArticleSnapshot.get(key, count, scrapeCount -> openOpinionSection().getTopArticles(scrapeCount));
+    }
+
+    @Test(description = "Test article scraping from El País Opinion section")
+    public void testArticleScraping() {
+        logger.info("Test: Article Scraping");
 
         // Get top articles
         int articleCount = 5;
-        List<OpinionPage.ArticleData> articles = opinionPage.getTopArticles(articleCount);
+        List<OpinionPage.ArticleData> articles = topArticles(articleCount);
 
         // Verify articles were scraped
         assert !articles.isEmpty() : "No articles were scraped";
@@ -74,22 +119,90 @@ public class ArticleScrapingTest {
     @Test(description = "Test multiple pages of articles")
     public void testMultipleArticles() {
         logger.info("Test: Multiple Articles Scraping");
-        String appUrl = ConfigManager.get("app.url");
-
-        HomePage homePage = new HomePage(DriverManager.getDriver());
-        homePage.navigate(appUrl);
-
-        OpinionPage opinionPage = homePage.navigateToOpinionSection();
-        opinionPage.waitForArticlesLoad();
 
-        List<OpinionPage.ArticleData> articles = opinionPage.getTopArticles(10);
+        List<OpinionPage.ArticleData> articles = topArticles(10);
         assert articles.size() >= 5 : "Expected at least 5 articles but got " + articles.size();
         logger.info("Test passed: Found {} articles", articles.size());
     }
 
+    @Test(description = "Fetch the full body of the top articles")
+    public void testArticleBodies() {
+        logger.info("Test: Article Bodies");
+        List<OpinionPage.ArticleData> articles = topArticles(5);
+        assert !articles.isEmpty() : "No articles were scraped";
+
+        // The browser fallback is only available when a session is running
+        ArticleBodyFetcher fetcher = new ArticleBodyFetcher(DriverManager.hasDriver() ? DriverManager.getDriver() : null);
+        int withBody = fetcher.fetchBodies(articles);
+
+        assert withBody > 0 : "No article bodies were fetched";
+        for (OpinionPage.ArticleData article : articles) {
+            if (article.body != null) {
+                assert article.body.length() >= article.content.length() : "Body shorter than teaser: " + article.title;
+                logger.info("Body of '{}': {} chars", article.title, article.body.length());
+            }
+        }
+    }
+
+    @Test(description = "Crawl the Opinion section beyond the first screen of articles")
+    public void testDeepCrawl() {
+        if (isHttpEngine()) {
+            throw new SkipException("Deep crawl follows infinite scroll and needs the browser engine");
+        }
+        logger.info("Test: Deep Crawl");
+        int maxArticles = ConfigManager.getInt("crawl.maxArticles", 60);
+
+        OpinionCrawler crawler = new OpinionCrawler(driver());
+        OpinionCrawler.CrawlResult result =
+                crawler.crawl(ConfigManager.get("app.opinionUrl", "https://elpais.com/opinion/"), maxArticles);
+
+        assert !result.articles.isEmpty() : "Crawl found no articles";
+        Set<String> urls = new HashSet<>();
+        for (OpinionPage.ArticleData article : result.articles) {
+            assert urls.add(article.articleUrl) : "Duplicate article in crawl: " + article.articleUrl;
+        }
+        assert result.articles.size() <= maxArticles : "Crawl exceeded the article budget";
+        logger.info("Crawled {} articles from {} pages ({}), {} articles/min", result.articles.size(),
+                result.pagesVisited, result.stopReason, String.format("%.1f", result.getArticlesPerMinute()));
+    }
+
+    @Test(description = "Scrape several sections in parallel tabs of one session")
+    public void testMultiSectionScraping() {
+        if (isHttpEngine()) {
+            throw new SkipException("Multi-section tabs need the browser engine");
+        }
+        logger.info("Test: Multi-Section Scraping");
+        List<String> sections = SectionTabScraper.getConfiguredSections();
+
+        SectionTabScraper scraper = new SectionTabScraper(driver());
+        Map<String, List<OpinionPage.ArticleData>> results = scraper.scrapeSections(sections, 5);
+
+        assert results.size() == sections.size() : "Expected " + sections.size() + " sections but got " + results.size();
+        for (Map.Entry<String, List<OpinionPage.ArticleData>> section : results.entrySet()) {
+            assert !section.getValue().isEmpty() : "No articles scraped from " + section.getKey();
+        }
+        assert DriverManager.getDriver().getWindowHandles().size() == 1 : "Section tabs were left open";
+    }
+
     @AfterMethod
-    public void tearDown() {
+    public void tearDown(ITestResult result) {
+        if (!DriverManager.hasDriver()) {
+            return;
+        }
         logger.info("Closing WebDriver");
-        DriverManager.quitDriver();
+        logger.info("Failed lookups so far: {} ({} ms)",
+                BasePage.getFailedLookupCount(), BasePage.getFailedLookupMillis());
+        if (LocatorRegistry.isEnabled()) {
+            LocatorRegistry.logStats();
+            LocatorRegistry.save();
+        }
+        DriverManager.saveCommandMetrics(result.getMethod().getMethodName());
+        DriverManager.takeScreenshot(result.getMethod().getMethodName(),
+                result.getStatus() == ITestResult.FAILURE);
+        if (result.getStatus() == ITestResult.FAILURE) {
+            DriverManager.discardDriver();
+        } else {
+            DriverManager.quitDriver();
+        }
     }
 }
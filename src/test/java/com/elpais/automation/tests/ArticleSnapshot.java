@@ -0,0 +1,103 @@
+package com.elpais.automation.tests;
+
+import com.elpais.automation.config.ConfigManager;
+import com.elpais.automation.pages.OpinionPage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+// Suite-wide snapshot of the top Opinion articles, scraped once per capability set and shared by
+// every test that only needs the article data. Each caller gets an unmodifiable list of copies, so
+// tests can fill in translations or bodies without affecting each other.
+public class ArticleSnapshot {
+    private static final Logger logger = LogManager.getLogger(ArticleSnapshot.class);
+
+    private static final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private ArticleSnapshot() {
+    }
+
+    // Whether tests share scraped articles instead of scraping in every test
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("feature.articleSnapshot", false);
+    }
+
+    // Snapshot key for a capability set (and scrape engine)
+    public static String key(String... capabilities) {
+        return String.join("|", capabilities);
+    }
+
+    // First count articles of the key's snapshot; scrapes with the scraper (which is given the number
+    // of articles to scrape) when there is no snapshot yet, it expired or holds fewer than requested
+    public static List<OpinionPage.ArticleData> get(String key, int count, IntFunction<List<OpinionPage.ArticleData>> scraper) {
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            Snapshot snapshot = snapshots.get(key);
+            if (snapshot == null || snapshot.isExpired() || !snapshot.covers(count)) {
+                int scrapeCount = Math.max(count, ConfigManager.getInt("snapshot.articleCount", 10));
+                long start = System.currentTimeMillis();
+                List<OpinionPage.ArticleData> articles = scraper.apply(scrapeCount);
+                logger.info("Article snapshot for {}: {} articles scraped in {} ms", key, articles.size(),
+                        System.currentTimeMillis() - start);
+                if (articles.isEmpty()) {
+                    // Nothing to share; the next test scrapes again
+                    return Collections.emptyList();
+                }
+                snapshot = new Snapshot(copy(articles), scrapeCount);
+                snapshots.put(key, snapshot);
+            } else {
+                logger.info("Serving {} articles from the snapshot for {}", Math.min(count, snapshot.articles.size()), key);
+            }
+            return Collections.unmodifiableList(copy(snapshot.articles.subList(0, Math.min(count, snapshot.articles.size()))));
+        }
+    }
+
+    // Drop the snapshot for one capability set, e.g. after the site changed mid-suite
+    public static void invalidate(String key) {
+        if (snapshots.remove(key) != null) {
+            logger.info("Article snapshot invalidated for {}", key);
+        }
+    }
+
+    // Drop all snapshots
+    public static void invalidateAll() {
+        snapshots.clear();
+        logger.info("All article snapshots invalidated");
+    }
+
+    private static List<OpinionPage.ArticleData> copy(List<OpinionPage.ArticleData> articles) {
+        List<OpinionPage.ArticleData> copies = new ArrayList<>(articles.size());
+        for (OpinionPage.ArticleData article : articles) {
+            copies.add(new OpinionPage.ArticleData(article));
+        }
+        return copies;
+    }
+
+    // Scraped articles with the time they were taken; maxAgeSec 0 keeps them for the whole suite
+    private static class Snapshot {
+        private final List<OpinionPage.ArticleData> articles;
+        private final int requested;
+        private final long takenAt = System.currentTimeMillis();
+
+        Snapshot(List<OpinionPage.ArticleData> articles, int requested) {
+            this.articles = articles;
+            this.requested = requested;
+        }
+
+        boolean isExpired() {
+            long maxAgeSec = ConfigManager.getLong("snapshot.maxAgeSec", 0);
+            return maxAgeSec > 0 && System.currentTimeMillis() - takenAt > TimeUnit.SECONDS.toMillis(maxAgeSec);
+        }
+
+        // A scrape that found fewer articles than requested still covers any count up to the request
+        boolean covers(int count) {
+            return count <= requested;
+        }
+    }
+}
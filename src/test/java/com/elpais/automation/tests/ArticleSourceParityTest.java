@@ -0,0 +1,119 @@
+package com.elpais.automation.tests;
+
+import com.elpais.automation.drivers.DriverManager;
+import com.elpais.automation.pages.ArticleBodyFetcher;
+import com.elpais.automation.pages.HttpArticleSource;
+import com.elpais.automation.pages.OpinionPage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Serves saved Opinion pages locally and checks that the HTTP engine extracts exactly what the browser does
+public class ArticleSourceParityTest {
+    private static final Logger logger = LogManager.getLogger(ArticleSourceParityTest.class);
+    private static final int COUNT = 10;
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        byte[] listing = readFixture("/fixtures/opinion-listing.html");
+        byte[] article = readFixture("/fixtures/opinion-article.html");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if ("/opinion/".equals(path)) {
+                respond(exchange, 200, listing);
+            } else if (path.startsWith("/opinion/20") && path.endsWith(".html")) {
+                respond(exchange, 200, article);
+            } else {
+                respond(exchange, 404, new byte[0]);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private byte[] readFixture(String name) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(name)) {
+            assert in != null : "Missing fixture " + name;
+            return in.readAllBytes();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Parameters({"browserName"})
+    @BeforeMethod
+    public void setUp(@Optional("chrome") String browserName) {
+        // The fixture server only listens on localhost, so this always needs a local browser
+        DriverManager.initializeDriver("local", browserName, "latest", "Windows", "11", "1920x1080");
+    }
+
+    @Test(description = "HttpArticleSource and OpinionPage return the same title, URL, image and body for a saved page")
+    public void testHttpMatchesBrowser() {
+        String listingUrl = baseUrl + "/opinion/";
+        List<OpinionPage.ArticleData> overHttp = new HttpArticleSource(listingUrl).getTopArticles(COUNT);
+
+        DriverManager.getDriver().get(listingUrl);
+        List<OpinionPage.ArticleData> inBrowser = new OpinionPage(DriverManager.getDriver()).getTopArticles(COUNT);
+
+        logger.info("HTTP: {}", overHttp);
+        logger.info("Browser: {}", inBrowser);
+        assert overHttp.size() == 5 : "Expected the 5 opinion articles of the fixture, got " + overHttp.size();
+        assert overHttp.size() == inBrowser.size() : "HTTP found " + overHttp.size() + ", browser " + inBrowser.size();
+        for (int i = 0; i < overHttp.size(); i++) {
+            OpinionPage.ArticleData http = overHttp.get(i);
+            OpinionPage.ArticleData browser = inBrowser.get(i);
+            assert http.title.equals(browser.title) : "Title " + i + ": '" + http.title + "' vs '" + browser.title + "'";
+            assert http.content.equals(browser.content) : "Content " + i + ": '" + http.content + "' vs '" + browser.content + "'";
+            assert http.imageUrl.equals(browser.imageUrl) : "Image " + i + ": " + http.imageUrl + " vs " + browser.imageUrl;
+            assert http.articleUrl.equals(browser.articleUrl) : "URL " + i + ": " + http.articleUrl + " vs " + browser.articleUrl;
+        }
+
+        // Bodies only for the articles served by the fixture server; the rest point at elpais.com
+        List<OpinionPage.ArticleData> local = overHttp.stream()
+                .filter(article -> article.articleUrl.startsWith(baseUrl))
+                .collect(Collectors.toList());
+        List<OpinionPage.ArticleData> localCopies = local.stream()
+                .map(OpinionPage.ArticleData::new)
+                .collect(Collectors.toList());
+        assert !local.isEmpty() : "No fixture-hosted articles";
+
+        assert new ArticleBodyFetcher(null).fetchBodies(local) == local.size() : "Bodies missing over HTTP";
+        assert new ArticleBodyFetcher(DriverManager.getDriver()).fetchBodiesInBrowser(localCopies) == local.size()
+                : "Bodies missing in the browser";
+        for (int i = 0; i < local.size(); i++) {
+            assert local.get(i).body.equals(localCopies.get(i).body)
+                    : "Body of " + local.get(i).articleUrl + ":\n" + local.get(i).body + "\nvs\n" + localCopies.get(i).body;
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        DriverManager.quitDriver();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+}
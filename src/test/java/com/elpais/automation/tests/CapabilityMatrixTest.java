@@ -0,0 +1,34 @@
+package com.elpais.automation.tests;
+
+import com.elpais.automation.config.CapabilityMatrix;
+import com.elpais.automation.config.ConfigManager;
+import com.elpais.automation.drivers.SessionScheduler;
+import com.elpais.automation.pages.HomePage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.*;
+import java.util.List;
+
+// Test class for running the capability matrix in parallel sessions
+public class CapabilityMatrixTest {
+    private static final Logger logger = LogManager.getLogger(CapabilityMatrixTest.class);
+
+    @Parameters({"hubUrl"})
+    @Test(description = "Run the home page check across the capability matrix within the parallel-session limit")
+    public void testCapabilityMatrix(@Optional("") String hubUrl) throws Exception {
+        List<CapabilityMatrix.Entry> entries = CapabilityMatrix.load();
+        assert !entries.isEmpty() : "Capability matrix is empty";
+        logger.info("Running {} matrix entries", entries.size());
+
+        String appUrl = ConfigManager.get("app.url", "https://elpais.com");
+        SessionScheduler.ScheduleReport report = SessionScheduler.fromConfig(hubUrl).run(entries, driver -> {
+            HomePage homePage = new HomePage(driver);
+            homePage.navigate(appUrl);
+            assert homePage.isHomePageLoaded() : "Home page failed to load";
+        });
+
+        assert report.allPassed() : "Some matrix sessions failed";
+        logger.info("Matrix wall clock {} ms vs serial baseline {} ms",
+                report.wallClockMillis, report.getSerialBaselineMillis());
+    }
+}
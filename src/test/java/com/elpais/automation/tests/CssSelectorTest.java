@@ -0,0 +1,112 @@
+package com.elpais.automation.tests;
+
+import com.elpais.automation.utils.CssSelector;
+import com.elpais.automation.utils.HtmlElement;
+import com.elpais.automation.utils.HtmlParser;
+import org.testng.annotations.*;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Matching rules of the CSS selector subset used against HtmlParser documents, no browser needed
+public class CssSelectorTest {
+    private static final String HTML = "<section id=\"main\" class=\"b_d\">"
+            + "<article class=\"c c-o c-d\" data-dtm-region=\"portada_apertura\" lang=\"es-ES\">"
+            + "<h2 class=\"c_t\"><a href=\"/opinion/uno.html\">uno</a></h2>"
+            + "<div class=\"c_a\"><img class=\"c_a_i\" src=\"avatar.jpg\"></div>"
+            + "<figure><img class=\"c_m_e _re\" src=\"uno.jpg\"></figure>"
+            + "<p class=\"c_d\">desc uno</p></article>"
+            + "<article class=\"c c-o\" lang=\"es\"><div><h2 class=\"x c_tt\">dos</h2></div>"
+            + "<p class=\"c_d\" data-tags=\"a, b\">desc dos</p></article>"
+            + "<article class=\"c-o\" lang=\"en\"><h2>tres</h2></article>"
+            + "</section>";
+
+    private HtmlElement document;
+
+    @BeforeClass
+    public void parse() {
+        document = HtmlParser.parse(HTML);
+    }
+
+    private List<String> select(String selector) {
+        return document.select(selector).stream().map(HtmlElement::text).collect(Collectors.toList());
+    }
+
+    private static void assertRejected(String selector) {
+        try {
+            CssSelector.parse(selector);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError("Selector should be rejected: " + selector);
+    }
+
+    @Test(description = "Type, universal, class and id selectors")
+    public void testSimpleSelectors() {
+        assert select("h2").equals(List.of("uno", "dos", "tres")) : select("h2").toString();
+        assert select("#main > *").size() == 3 : "Universal child selector";
+        assert select("article.c.c-o h2").equals(List.of("uno", "dos")) : "Compound classes: " + select("article.c.c-o h2");
+        assert select("section#main.b_d h2.c_t").equals(List.of("uno")) : "id and class compound";
+        assert select("H2.C_T").isEmpty() : "Class names are case-sensitive";
+        assert select("ARTICLE > H2").size() == 2 : "Type selectors are case-insensitive";
+    }
+
+    @Test(description = "Child combinators only match direct children, descendant combinators any depth")
+    public void testCombinators() {
+        assert select("article > h2").equals(List.of("uno", "tres")) : "Child: " + select("article > h2");
+        assert select("article h2").equals(List.of("uno", "dos", "tres")) : "Descendant: " + select("article h2");
+        assert select("section>article>h2>a").equals(List.of("uno")) : "Child without spaces";
+        assert select("section article div > h2").equals(List.of("dos")) : "Mixed combinators";
+        assert select("figure > .c_a_i").isEmpty() : "Avatar is not inside the figure";
+    }
+
+    @Test(description = "Every attribute operator")
+    public void testAttributeOperators() {
+        assert select("article[data-dtm-region] h2").equals(List.of("uno")) : "Presence";
+        assert select("h2[class='c_t']").equals(List.of("uno")) : "Equals";
+        assert select("h2[class=c_t]").equals(List.of("uno")) : "Equals, unquoted";
+        assert select("h2[class*='c_t']").equals(List.of("uno", "dos")) : "Substring";
+        assert select("h2[class~=c_t]").equals(List.of("uno")) : "Word: " + select("h2[class~=c_t]");
+        assert select("h2[class^=x]").equals(List.of("dos")) : "Prefix";
+        assert select("h2[class$=\"_tt\"]").equals(List.of("dos")) : "Suffix";
+        assert select("article[lang|=es] > h2").equals(List.of("uno")) : "Language prefix: " + select("article[lang|=es] > h2");
+        assert document.select("article[lang|=es]").size() == 2 : "Language prefix must match es and es-ES";
+        assert select("h2[class*='']").isEmpty() : "Empty substring matches nothing";
+        assert select("a[ href = '/opinion/uno.html' ]").equals(List.of("uno")) : "Whitespace around the operator";
+    }
+
+    @Test(description = "Commas inside quoted values and :not() do not split the selector group")
+    public void testSelectorGroups() {
+        assert select("p[data-tags='a, b']").equals(List.of("desc dos")) : "Quoted comma split the group";
+        assert select("h2.c_t, p.c_d").equals(List.of("uno", "desc uno", "desc dos")) : "Group in document order";
+        assert select("p:not([data-tags='x, y'])").equals(List.of("desc uno", "desc dos")) : "Comma inside :not()";
+    }
+
+    @Test(description = "first-child, last-child, nth-child and not")
+    public void testPseudoClasses() {
+        assert select("article:first-child > h2").equals(List.of("uno")) : "first-child";
+        assert select("article:last-child h2").equals(List.of("tres")) : "last-child";
+        assert select("article:nth-child(2) h2").equals(List.of("dos")) : "nth-child(2)";
+        assert select("article:nth-child(odd) h2").equals(List.of("uno", "tres")) : "odd";
+        assert select("article:nth-child(even) h2").equals(List.of("dos")) : "even";
+        assert select("article:nth-child(-n+2) h2").equals(List.of("uno", "dos")) : "-n+2";
+        assert select("article:nth-child(2n + 3) h2").equals(List.of("tres")) : "2n + 3";
+        assert select("img:not(.c_a_i)").size() == 1 : "not";
+        assert select("h2:not([class])").equals(List.of("tres")) : "not with an attribute";
+    }
+
+    @Test(description = "Selectors outside the subset are rejected instead of silently matching")
+    public void testUnsupportedSelectors() {
+        assertRejected("h2[class!=c_t]");
+        assertRejected("h2[class=]");
+        assertRejected("h2[class");
+        assertRejected("a:hover");
+        assertRejected("article:nth-child(x)");
+        assertRejected("article:not(a b)");
+        assertRejected("article:not(.c, .c-d)");
+        assertRejected("h2 + p");
+        assertRejected("h2 ~ p");
+        assertRejected("> h2");
+        assertRejected("h2 >");
+        assertRejected("h2)");
+    }
+}
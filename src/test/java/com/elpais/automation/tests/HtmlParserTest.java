@@ -0,0 +1,105 @@
+package com.elpais.automation.tests;
+
+import com.elpais.automation.utils.HtmlElement;
+import com.elpais.automation.utils.HtmlParser;
+import org.testng.annotations.*;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Tree construction and text extraction of the browserless HtmlParser, no browser needed
+public class HtmlParserTest {
+
+    private static List<String> texts(List<HtmlElement> elements) {
+        return elements.stream().map(HtmlElement::text).collect(Collectors.toList());
+    }
+
+    @Test(description = "Void and self-closing elements take no children")
+    public void testVoidElements() {
+        HtmlElement document = HtmlParser.parse("<div><img src=a.jpg><span>after</span><br/><input type=text>tail</div>");
+        HtmlElement div = document.selectFirst("div");
+
+        assert div.select("div > img, div > span, div > br, div > input").size() == 4
+                : "Void elements swallowed their siblings: " + div.select("*");
+        assert document.selectFirst("img").select("*").isEmpty() : "img has children";
+        assert document.selectFirst("span").getParent() == div : "span nested in img";
+        assert "after\ntail".equals(div.text()) : "Unexpected text: " + div.text();
+    }
+
+    @Test(description = "Unclosed p and li are closed by the next block or item, as in a browser")
+    public void testImpliedEndTags() {
+        HtmlElement document = HtmlParser.parse("<div><p>uno<p>dos<div>tres</div></div>"
+                + "<ul><li>a<li>b<ul><li>b1</ul><li>c</ul>");
+
+        assert texts(document.select("p")).equals(List.of("uno", "dos")) : "p not closed: " + texts(document.select("p"));
+        assert document.select("p div").isEmpty() : "div nested inside an open p";
+        assert document.select("ul > li:not(:first-child)").size() == 2 : "li not closed";
+        assert texts(document.select("li:first-child")).equals(List.of("a", "b1"))
+                : "li not closed: " + texts(document.select("li:first-child"));
+        assert document.select("ul ul > li").size() == 1 : "Nested list item closed its parent item";
+        assert texts(document.select("li:last-child")).equals(List.of("b1", "c")) : "Item after a nested list";
+    }
+
+    @Test(description = "Unmatched end tags are ignored and mis-nested tags close their inner elements")
+    public void testMismatchedEndTags() {
+        HtmlElement document = HtmlParser.parse("<div></span><b>bold<i>both</b>after</div><p>next</p>");
+
+        HtmlElement div = document.selectFirst("div");
+        assert div != null && "boldbothafter".equals(div.text()) : "Unexpected div text: " + div;
+        assert document.selectFirst("div > p") == null : "Stray end tag left the div open";
+        assert "next".equals(document.selectFirst("p").text()) : "Unexpected p text";
+    }
+
+    @Test(description = "Named and numeric character references are decoded in text and attributes")
+    public void testEntities() {
+        HtmlElement document = HtmlParser.parse("<h2 title=\"Caf&eacute; &amp; t&#233;\">"
+                + "&laquo;Espa&ntilde;a&raquo;&nbsp;&#x2014;&#8220;ok&#8221; &unknown; a & b &amp</h2>");
+        HtmlElement h2 = document.selectFirst("h2");
+
+        assert "Café & té".equals(h2.attr("title")) : "Attribute not decoded: " + h2.attr("title");
+        assert "«España» —“ok” &unknown; a & b &amp".equals(h2.text()) : "Text not decoded: " + h2.text();
+    }
+
+    @Test(description = "Attribute values may be double, single or unquoted; names are case-insensitive")
+    public void testAttributes() {
+        HtmlElement document = HtmlParser.parse("<a HREF='/opinion/a.html' data-x=1 class=\"c  c-o\" hidden "
+                + "data-x=2 title=\"a > b\">link</a>");
+        HtmlElement link = document.selectFirst("a");
+
+        assert "/opinion/a.html".equals(link.attr("href")) : "Single-quoted value";
+        assert "1".equals(link.attr("data-x")) : "The first duplicate attribute must win";
+        assert link.hasAttr("hidden") && "".equals(link.attr("hidden")) : "Valueless attribute";
+        assert "a > b".equals(link.attr("title")) : "Quoted '>' ended the tag";
+        assert link.classNames().equals(List.of("c", "c-o")) : "Class names: " + link.classNames();
+        assert "link".equals(link.text()) : "Unexpected text: " + link.text();
+    }
+
+    @Test(description = "Script, style and comments do not leak markup or text")
+    public void testRawTextAndComments() {
+        HtmlElement document = HtmlParser.parse("<div>a<!-- <p>hidden</p> --><script>if (x < 1) { s = '</div>'; }"
+                + "</SCRIPT><style>p { color: red }</style>b<noscript><img src=n.gif></noscript></div>");
+        HtmlElement div = document.selectFirst("div");
+
+        assert document.select("p").isEmpty() : "Commented-out markup was parsed";
+        assert document.select("img").isEmpty() : "noscript contents were parsed as markup";
+        assert "ab".equals(div.text()) : "Unexpected text: " + div.text();
+        assert document.select("div > script").size() == 1 : "A '</div>' inside script closed the div";
+    }
+
+    @Test(description = "Whitespace is collapsed and <br> becomes a line break, like WebElement.getText()")
+    public void testTextWhitespace() {
+        HtmlElement document = HtmlParser.parse("<p>\n   Una   línea\t con <em>énfasis</em>&nbsp;y<br>\n  otra   </p>");
+
+        assert "Una línea con énfasis y\notra".equals(document.selectFirst("p").text())
+                : "Unexpected text: " + document.selectFirst("p").text();
+    }
+
+    @Test(description = "Truncated input still yields the content parsed so far")
+    public void testTruncatedInput() {
+        HtmlElement document = HtmlParser.parse("<article class=\"c\"><h2><a href=\"/x\">Título</a></h2><p>sin cerrar");
+
+        assert "Título".equals(document.selectFirst("article h2").text()) : "Title lost";
+        assert "sin cerrar".equals(document.selectFirst("article p").text()) : "Trailing text lost";
+        assert HtmlParser.parse("<div class=\"unterminated").select("div").size() == 1 : "Unterminated attribute";
+        assert HtmlParser.parse("a < b <").text().equals("a < b <") : "Bare '<' is text";
+    }
+}
@@ -0,0 +1,146 @@
+package com.elpais.automation.tests;
+
+import com.elpais.automation.config.CapabilityMatrix;
+import com.elpais.automation.drivers.SessionScheduler;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.*;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs SessionScheduler against a local stand-in for a Selenium Grid hub, no browser or BrowserStack needed
+public class SessionSchedulerTest {
+    private static final Logger logger = LogManager.getLogger(SessionSchedulerTest.class);
+    private static final Gson gson = new Gson();
+    private static final long TASK_MILLIS = 300;
+
+    private HttpServer hub;
+    // Session id -> capabilities requested plus every timeout and window command it received
+    private final Map<String, JsonObject> sessions = new ConcurrentHashMap<>();
+    private final Set<String> quitSessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @BeforeClass
+    public void startHub() throws Exception {
+        hub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hub.setExecutor(Executors.newCachedThreadPool());
+
+        // Just enough of the W3C WebDriver protocol for session setup, navigation and quit
+        hub.createContext("/wd/hub/session", exchange -> {
+            String[] path = exchange.getRequestURI().getPath().substring("/wd/hub/session".length()).split("/");
+            String method = exchange.getRequestMethod();
+            JsonObject body = "POST".equals(method) ? gson.fromJson(
+                    new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8), JsonObject.class) : null;
+
+            if (path.length <= 1) {
+                String sessionId = UUID.randomUUID().toString();
+                JsonObject record = new JsonObject();
+                record.add("requested", body.getAsJsonObject("capabilities")
+                        .getAsJsonArray("firstMatch").get(0));
+                record.add("timeouts", new JsonObject());
+                sessions.put(sessionId, record);
+                peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+                JsonObject value = new JsonObject();
+                value.addProperty("sessionId", sessionId);
+                value.add("capabilities", record.get("requested"));
+                respond(exchange, value);
+                return;
+            }
+
+            JsonObject record = sessions.get(path[1]);
+            String command = path.length > 2 ? String.join("/", List.of(path).subList(2, path.length)) : "";
+            if ("DELETE".equals(method) && command.isEmpty()) {
+                if (quitSessions.add(path[1])) {
+                    active.decrementAndGet();
+                }
+                respond(exchange, null);
+            } else if ("timeouts".equals(command)) {
+                body.entrySet().forEach(entry -> record.getAsJsonObject("timeouts").add(entry.getKey(), entry.getValue()));
+                respond(exchange, null);
+            } else if ("window/maximize".equals(command)) {
+                record.addProperty("maximized", true);
+                JsonObject rect = new JsonObject();
+                rect.addProperty("x", 0);
+                rect.addProperty("y", 0);
+                rect.addProperty("width", 1920);
+                rect.addProperty("height", 1080);
+                respond(exchange, rect);
+            } else {
+                respond(exchange, null);
+            }
+        });
+        hub.start();
+    }
+
+    private static void respond(HttpExchange exchange, Object value) throws IOException {
+        JsonObject response = new JsonObject();
+        response.add("value", gson.toJsonTree(value));
+        byte[] body = gson.toJson(response).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test(description = "Scheduled sessions are configured like DriverManager sessions and respect the parallel limit")
+    public void testScheduleAgainstLocalGrid() throws Exception {
+        int maxParallel = 2;
+        List<CapabilityMatrix.Entry> entries = CapabilityMatrix.parse("chrome:latest:Windows:11:1920x1080;"
+                + "firefox:latest:Windows:11:1920x1080;edge:latest:Windows:11:1920x1080;"
+                + "mobile:Samsung Galaxy S21:12.0:chrome");
+        URL hubUrl = new URL("http://127.0.0.1:" + hub.getAddress().getPort() + "/wd/hub");
+
+        SessionScheduler.ScheduleReport report = SessionScheduler.forHub(hubUrl, maxParallel).run(entries, driver -> {
+            driver.get("https://elpais.com");
+            try {
+                TimeUnit.MILLISECONDS.sleep(TASK_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        logger.info("Local grid: {} sessions, peak {} parallel, wall clock {} ms vs serial {} ms",
+                sessions.size(), peak.get(), report.wallClockMillis, report.getSerialBaselineMillis());
+        assert report.allPassed() : "Some scheduled sessions failed";
+        assert report.results.size() == entries.size() : "Expected " + entries.size() + " results";
+        assert sessions.size() == entries.size() : "Expected one session per entry, got " + sessions.size();
+        assert quitSessions.equals(sessions.keySet()) : "Not every session was quit";
+        assert peak.get() <= maxParallel : "Peak " + peak.get() + " exceeds " + maxParallel + " parallel sessions";
+        assert peak.get() > 1 : "Sessions did not run in parallel";
+
+        for (JsonObject record : sessions.values()) {
+            JsonObject timeouts = record.getAsJsonObject("timeouts");
+            boolean mobile = record.getAsJsonObject("requested").getAsJsonObject("bstack:options").has("deviceName");
+            assert record.getAsJsonObject("requested").has("pageLoadStrategy") : "No page load strategy: " + record;
+            assert timeouts.has("implicit") && timeouts.has("script") : "Timeouts not set: " + record;
+            assert mobile || timeouts.has("pageLoad") : "No page load timeout: " + record;
+            assert mobile || record.has("maximized") : "Desktop window not maximized: " + record;
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopHub() {
+        if (hub != null) {
+            hub.stop(0);
+        }
+    }
+}
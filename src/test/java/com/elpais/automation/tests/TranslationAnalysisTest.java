@@ -1,16 +1,25 @@
 package com.elpais.automation.tests;
 
 import com.elpais.automation.drivers.DriverManager;
+import com.elpais.automation.pages.BasePage;
 import com.elpais.automation.pages.HomePage;
+import com.elpais.automation.pages.LocatorRegistry;
 import com.elpais.automation.pages.OpinionPage;
+import com.elpais.automation.utils.ImageDownloader;
 import com.elpais.automation.utils.TranslationService;
 import com.elpais.automation.config.ConfigManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 
 // Test class for translation analysis functionality
 public class TranslationAnalysisTest {
@@ -21,6 +30,7 @@ public class TranslationAnalysisTest {
     private String os;
     private String osVersion;
     private String resolution;
+    private String device;
 
     @Parameters({"env", "browserName", "browserVersion", "os", "osVersion", "resolution", "device"})
     @BeforeMethod
@@ -37,33 +47,57 @@ public class TranslationAnalysisTest {
         this.os = os;
         this.osVersion = osVersion;
         this.resolution = resolution;
+        this.device = device;
 
         logger.info("Starting translation test with: env={}, browser={}, device={}", env, browserName, device);
-        
+    }
+
+    // The browser is started on first use, so tests served by the article snapshot or translating
+    // fixed text never launch one
+    private WebDriver driver() {
+        if (DriverManager.hasDriver()) {
+            return DriverManager.getDriver();
+        }
         if (!device.isEmpty() && "browserstack".equalsIgnoreCase(env)) {
             DriverManager.initializeMobileDriver(device, osVersion, browserName);
         } else {
             DriverManager.initializeDriver(env, browserName, browserVersion, os, osVersion, resolution);
         }
+        return DriverManager.getDriver();
     }
 
-    @Test(description = "Complete workflow for El País Opinion section scraping and analysis")
-    public void testCompleteWorkflow() {
-        logger.info("Starting complete workflow test");
+    // Scrape the top articles from the Opinion section, reached through the home page
+    private List<OpinionPage.ArticleData> scrapeOpinionArticles(int count) {
         String appUrl = ConfigManager.get("app.url", "https://elpais.com");
 
         // 1 & 2. Visit El País and ensure text is in Spanish (default)
-        HomePage homePage = new HomePage(DriverManager.getDriver());
+        HomePage homePage = new HomePage(driver());
         homePage.navigate(appUrl);
         homePage.closeCookieBanner();
-        
+
         // 3. Navigate to Opinion section
         OpinionPage opinionPage = homePage.navigateToOpinionSection();
         opinionPage.waitForArticlesLoad();
         logger.info("Navigated to Opinion section");
 
-        // 4 & 5. Fetch first 5 articles and print title/content in Spanish
-        List<OpinionPage.ArticleData> articles = opinionPage.getTopArticles(5);
+        return opinionPage.getTopArticles(count);
+    }
+
+    // Top articles, from the suite-wide snapshot when it is enabled
+    private List<OpinionPage.ArticleData> topArticles(int count) {
+        if (!ArticleSnapshot.isEnabled()) {
+            return scrapeOpinionArticles(count);
+        }
+        String key = ArticleSnapshot.key(env, browserName, browserVersion, os, osVersion, resolution, device, "browser");
+        return ArticleSnapshot.get(key, count, this::scrapeOpinionArticles);
+    }
+
+    @Test(description = "Complete workflow for El País Opinion section scraping and analysis")
+    public void testCompleteWorkflow() {
+        logger.info("Starting complete workflow test");
+
+        // 1 - 5. Fetch first 5 articles of the Opinion section and print title/content in Spanish
+        List<OpinionPage.ArticleData> articles = topArticles(5);
         assert articles.size() >= 1 : "No articles found in Opinion section";
         
         System.out.println("\n--- ARTICLES IN SPANISH ---");
@@ -73,10 +107,12 @@ public class TranslationAnalysisTest {
             System.out.println("Title: " + article.title);
             System.out.println("Content: " + article.content);
             
-            // 6. Download and save cover image
+            // 6. Download and save cover image, over HTTP when the articles came from the snapshot
             if (article.imageUrl != null && !article.imageUrl.isEmpty()) {
                 String downloadPath = ConfigManager.get("DOWNLOAD_PATH", "downloaded_images");
-                String imagePath = com.elpais.automation.utils.ImageDownloader.downloadImageWithSelenium(article.imageUrl, downloadPath, DriverManager.getDriver());
+                String imagePath = DriverManager.hasDriver()
+                        ? ImageDownloader.downloadImageWithSelenium(article.imageUrl, downloadPath, DriverManager.getDriver())
+                        : ImageDownloader.downloadImage(article.imageUrl, downloadPath);
                 logger.info("Image saved to: " + imagePath);
             }
         }
@@ -119,6 +155,58 @@ public class TranslationAnalysisTest {
         logger.info("Complete workflow test finished");
     }
 
+    @Test(description = "Translate and download images while the remaining articles are still being scraped")
+    public void testStreamingWorkflow() throws Exception {
+        logger.info("Starting streaming workflow test");
+        String appUrl = ConfigManager.get("app.url", "https://elpais.com");
+        String downloadPath = ConfigManager.get("DOWNLOAD_PATH", "downloaded_images");
+
+        HomePage homePage = new HomePage(driver());
+        homePage.navigate(appUrl);
+        OpinionPage opinionPage = homePage.navigateToOpinionSection();
+
+        // Subscriber work runs on the publisher's executor, so it must not touch the WebDriver;
+        // images are fetched over HTTP instead of through the browser
+        List<OpinionPage.ArticleData> processed = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        long start = System.currentTimeMillis();
+
+        int published = opinionPage.streamTopArticles(5, new Flow.Subscriber<OpinionPage.ArticleData>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(OpinionPage.ArticleData article) {
+                article.translatedTitle = TranslationService.translateToEnglish(article.title);
+                if (article.imageUrl != null && !article.imageUrl.isEmpty()) {
+                    ImageDownloader.downloadImage(article.imageUrl, downloadPath);
+                }
+                processed.add(article);
+                logger.info("Processed article {} after {} ms: {}", processed.size(),
+                        System.currentTimeMillis() - start, article.translatedTitle);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        logger.info("Scraping finished after {} ms, {} articles published", System.currentTimeMillis() - start, published);
+
+        done.get(2, TimeUnit.MINUTES);
+        logger.info("Streaming workflow finished after {} ms", System.currentTimeMillis() - start);
+
+        assert published >= 1 : "No articles found in Opinion section";
+        assert processed.size() == published : "Processed " + processed.size() + " of " + published + " articles";
+    }
+
     @Test(description = "Test batch translation of article titles")
     public void testBatchTranslation() {
         logger.info("Test: Batch Translation");
@@ -169,9 +257,25 @@ public class TranslationAnalysisTest {
     }
 
     @AfterMethod
-    public void tearDown() {
+    public void tearDown(ITestResult result) {
         logger.info("Clearing translation cache and closing WebDriver");
         TranslationService.clearCache();
-        DriverManager.quitDriver();
+        if (!DriverManager.hasDriver()) {
+            return;
+        }
+        logger.info("Failed lookups so far: {} ({} ms)",
+                BasePage.getFailedLookupCount(), BasePage.getFailedLookupMillis());
+        if (LocatorRegistry.isEnabled()) {
+            LocatorRegistry.logStats();
+            LocatorRegistry.save();
+        }
+        DriverManager.saveCommandMetrics(result.getMethod().getMethodName());
+        DriverManager.takeScreenshot(result.getMethod().getMethodName(),
+                result.getStatus() == ITestResult.FAILURE);
+        if (result.getStatus() == ITestResult.FAILURE) {
+            DriverManager.discardDriver();
+        } else {
+            DriverManager.quitDriver();
+        }
     }
 }
@@ -0,0 +1,331 @@
+package com.elpais.automation.tests;
+
+import com.elpais.automation.utils.TranslationBatcher;
+import com.elpais.automation.utils.TranslationClient;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.*;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Exercises TranslationClient against a local stub of the translation API, no browser or API key needed
+public class TranslationClientTest {
+    private static final Logger logger = LogManager.getLogger(TranslationClientTest.class);
+    private static final Gson gson = new Gson();
+    private static final long STUB_DELAY_MS = 100;
+
+    private HttpServer stub;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    @BeforeClass
+    public void startStub() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+
+        // Answers {"text": "..."} with the JSON string "EN:..." and {"text": [...]} with an array of
+        // them, after a fixed delay; "fail" gets an error message
+        stub.createContext("/t", exchange -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            requestCount.incrementAndGet();
+            try {
+                JsonObject request = gson.fromJson(
+                        new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8), JsonObject.class);
+                JsonElement text = request.get("text");
+                TimeUnit.MILLISECONDS.sleep(STUB_DELAY_MS);
+
+                boolean fail = text.isJsonPrimitive() && "fail".equals(text.getAsString());
+                String response;
+                if (fail) {
+                    response = "{\"message\":\"quota exceeded\"}";
+                } else if (text.isJsonArray()) {
+                    JsonArray translations = new JsonArray();
+                    text.getAsJsonArray().forEach(item -> translations.add("EN:" + item.getAsString()));
+                    response = gson.toJson(translations);
+                } else {
+                    response = gson.toJson("EN:" + text.getAsString());
+                }
+                byte[] body = response.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(fail ? 429 : 200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+        stub.start();
+    }
+
+    private String stubUrl() {
+        return "http://127.0.0.1:" + stub.getAddress().getPort() + "/t";
+    }
+
+    @Test(description = "Concurrent translations stay within max in-flight and reuse connections")
+    public void testAsyncTranslationAgainstStub() {
+        int maxInFlight = 3;
+        int requests = 12;
+        TranslationClient client = new TranslationClient(stubUrl(), "stub-key", "localhost", maxInFlight, 5000, 5000);
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<String>> translations = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            translations.add(client.translateAsync("titular " + i));
+        }
+        // Queuing must not block the caller
+        assert System.currentTimeMillis() - start < STUB_DELAY_MS : "translateAsync blocked the caller";
+
+        CompletableFuture.allOf(translations.toArray(new CompletableFuture<?>[0])).join();
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("{} translations in {} ms, peak {} in flight over {} connections",
+                requests, elapsed, peak.get(), clientPorts.size());
+
+        for (int i = 0; i < requests; i++) {
+            assert ("EN:titular " + i).equals(translations.get(i).join()) : "Wrong translation " + i;
+        }
+        assert peak.get() <= maxInFlight : "Peak in flight " + peak.get() + " exceeds " + maxInFlight;
+        assert peak.get() > 1 : "Requests did not overlap";
+        assert clientPorts.size() <= maxInFlight : "Connections not reused: " + clientPorts.size();
+        assert client.getInFlight() == 0 : "Requests still counted in flight";
+    }
+
+    @Test(description = "A failed translation completes with the original text")
+    public void testFailedTranslationReturnsOriginal() {
+        TranslationClient client = new TranslationClient(stubUrl(), "stub-key", "localhost", 2, 5000, 5000);
+        assert "fail".equals(client.translateAsync("fail").join()) : "Expected the original text back";
+
+        TranslationClient unreachable = new TranslationClient("http://127.0.0.1:1/t", "stub-key", "localhost", 2, 1000, 1000);
+        assert "hola".equals(unreachable.translateAsync("hola").join()) : "Expected the original text back";
+    }
+
+    @Test(description = "A long queue of requests that complete synchronously drains without recursing")
+    public void testSynchronousCompletionsDoNotRecurse() throws Exception {
+        int queued = 100_000;
+        SynchronousHttpClient httpClient = new SynchronousHttpClient();
+        TranslationClient client = new TranslationClient(httpClient, stubUrl(), "stub-key", "localhost", 1, 5000);
+
+        // The first request holds the only slot while the rest queue up behind it
+        CompletableFuture<String> first = client.translateAsync("primero");
+        List<CompletableFuture<String>> translations = new ArrayList<>(queued);
+        for (int i = 0; i < queued; i++) {
+            translations.add(client.translateAsync("titular " + i));
+        }
+        assert client.getInFlight() == 1 : "Queued requests started past the limit";
+
+        // Each queued response is already complete, so releasing the slot runs the whole queue on this thread
+        httpClient.release();
+        CompletableFuture.allOf(translations.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+        assert "EN".equals(first.join()) : "Wrong translation for the held request";
+        assert translations.stream().allMatch(translation -> "EN".equals(translation.join())) : "Wrong translations";
+        assert httpClient.sent.get() == queued + 1 : "Expected " + (queued + 1) + " requests, sent " + httpClient.sent.get();
+        assert client.getInFlight() == 0 : "Requests still counted in flight";
+    }
+
+    @Test(description = "Batched translations share requests within the item and size limits")
+    public void testBatchedTranslationAgainstStub() {
+        TranslationClient client = new TranslationClient(stubUrl(), "stub-key", "localhost", 4, 5000, 5000);
+
+        // 10 texts, 4 per request: 3 requests
+        TranslationBatcher batcher = new TranslationBatcher(client, 4, 4096, 50);
+        int before = requestCount.get();
+        List<CompletableFuture<String>> translations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            translations.add(batcher.submit("titular " + i));
+        }
+        for (int i = 0; i < translations.size(); i++) {
+            assert ("EN:titular " + i).equals(translations.get(i).join()) : "Wrong translation " + i;
+        }
+        assert requestCount.get() - before == 3 : "Expected 3 requests but made " + (requestCount.get() - before);
+
+        // Each text is 14 bytes of JSON plus a separator, so 40 bytes fit 2 per request
+        TranslationBatcher small = new TranslationBatcher(client, 25, 40, 50);
+        before = requestCount.get();
+        translations.clear();
+        for (int i = 0; i < 6; i++) {
+            translations.add(small.submit("titular " + i + "xx"));
+        }
+        CompletableFuture.allOf(translations.toArray(new CompletableFuture<?>[0])).join();
+        assert requestCount.get() - before == 3 : "Byte limit not applied: " + (requestCount.get() - before) + " requests";
+
+        // Concurrent single callers within the window share one request
+        before = requestCount.get();
+        List<CompletableFuture<String>> concurrent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String text = "hilo " + i;
+            concurrent.add(CompletableFuture.supplyAsync(() -> batcher.submit(text).join()));
+        }
+        for (int i = 0; i < concurrent.size(); i++) {
+            assert ("EN:hilo " + i).equals(concurrent.get(i).join()) : "Wrong translation for caller " + i;
+        }
+        logger.info("5 concurrent callers used {} requests", requestCount.get() - before);
+        assert requestCount.get() - before < 5 : "Concurrent callers were not batched";
+    }
+
+    // Answers every request at once with the JSON string "EN", except the first, which waits for release()
+    private static class SynchronousHttpClient extends HttpClient {
+        private final CompletableFuture<Void> released = new CompletableFuture<>();
+        private final AtomicInteger sent = new AtomicInteger();
+
+        void release() {
+            released.complete(null);
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+            HttpResponse<T> response = new StringResponse<>(request);
+            return sent.getAndIncrement() == 0
+                    ? released.thenApply(done -> response)
+                    : CompletableFuture.completedFuture(response);
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                                HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            return sendAsync(request, handler);
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+            return sendAsync(request, handler).join();
+        }
+
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Redirect followRedirects() {
+            return Redirect.NEVER;
+        }
+
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return Optional.empty();
+        }
+
+        @Override
+        public SSLContext sslContext() {
+            return null;
+        }
+
+        @Override
+        public SSLParameters sslParameters() {
+            return null;
+        }
+
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Version version() {
+            return Version.HTTP_1_1;
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return Optional.empty();
+        }
+    }
+
+    // 200 response with the body "EN"; the client reads it with BodyHandlers.ofString
+    private static class StringResponse<T> implements HttpResponse<T> {
+        private final HttpRequest request;
+
+        StringResponse(HttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of(), (name, value) -> true);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T body() {
+            return (T) "\"EN\"";
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        if (stub != null) {
+            stub.stop(0);
+        }
+    }
+}
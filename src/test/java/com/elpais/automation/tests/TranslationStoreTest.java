@@ -0,0 +1,110 @@
+package com.elpais.automation.tests;
+
+import com.elpais.automation.utils.TranslationStore;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Exercises TranslationStore on a temporary log file, reopening it to simulate a new run; no browser needed
+public class TranslationStoreTest {
+    private static final Logger logger = LogManager.getLogger(TranslationStoreTest.class);
+    private static final Gson gson = new Gson();
+
+    private Path dir;
+    private Path file;
+
+    @BeforeMethod
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("translation-store");
+        file = dir.resolve("translations.jsonl");
+    }
+
+    @Test(description = "Translations written in one run are served by the next, the last write winning")
+    public void testSurvivesRestart() {
+        TranslationStore store = new TranslationStore(file, 100);
+        store.put("hola", "hello");
+        store.put("adiós", "bye");
+        store.put("adiós", "goodbye");
+
+        TranslationStore reopened = new TranslationStore(file, 100);
+        assert reopened.size() == 2 : "Expected 2 translations after reopening, got " + reopened.size();
+        assert "hello".equals(reopened.get("hola")) : "Lost 'hola': " + reopened.get("hola");
+        assert "goodbye".equals(reopened.get("adiós")) : "Stale 'adiós': " + reopened.get("adiós");
+    }
+
+    @Test(description = "At maxEntries the least recently used translation is evicted, in memory and on reopen")
+    public void testEvictsLeastRecentlyUsed() {
+        TranslationStore store = new TranslationStore(file, 3);
+        store.put("a", "A");
+        store.put("b", "B");
+        store.put("c", "C");
+        store.get("a");
+        store.put("d", "D");
+
+        assert store.size() == 3 : "Store grew past maxEntries: " + store.size();
+        assert store.get("b") == null : "Least recently used entry was not evicted";
+        assert "A".equals(store.get("a")) : "Recently read entry was evicted";
+
+        // Across runs recency is the order of the log, so the oldest write goes first
+        TranslationStore reopened = new TranslationStore(file, 3);
+        assert reopened.size() == 3 : "Reopened store holds " + reopened.size() + " entries";
+        assert reopened.get("a") == null : "Oldest write survived the reopen";
+        assert "D".equals(reopened.get("d")) && "C".equals(reopened.get("c")) : "Newest writes were evicted";
+    }
+
+    @Test(description = "Rewriting the same keys compacts the log instead of growing it")
+    public void testCompaction() throws IOException {
+        TranslationStore store = new TranslationStore(file, 100);
+        int writes = 250;
+        for (int i = 0; i < writes; i++) {
+            store.put("key" + (i % 5), "value" + i);
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        logger.info("{} writes of 5 keys left {} log lines", writes, lines.size());
+        assert lines.size() < 100 : "Log was not compacted: " + lines.size() + " lines";
+
+        TranslationStore reopened = new TranslationStore(file, 100);
+        assert reopened.size() == 5 : "Expected 5 keys after compaction, got " + reopened.size();
+        for (int k = 0; k < 5; k++) {
+            String expected = "value" + (writes - 5 + k);
+            assert expected.equals(reopened.get("key" + k)) : "key" + k + " is " + reopened.get("key" + k);
+        }
+    }
+
+    @Test(description = "A last line cut off by a crash is skipped and dropped, so the next append stays readable")
+    public void testRecoversFromTruncatedLastLine() throws IOException {
+        TranslationStore store = new TranslationStore(file, 100);
+        store.put("uno", "one");
+        store.put("dos", "two");
+        Files.write(file, "{\"k\":\"tres\",\"v\":\"thr".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        TranslationStore reopened = new TranslationStore(file, 100);
+        assert reopened.size() == 2 : "Expected the 2 complete entries, got " + reopened.size();
+        assert reopened.get("tres") == null : "Partial entry was loaded";
+        reopened.put("tres", "three");
+
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            JsonObject entry = gson.fromJson(line, JsonObject.class);
+            assert entry.has("k") && entry.has("v") : "Unreadable log line: " + line;
+        }
+        TranslationStore again = new TranslationStore(file, 100);
+        assert again.size() == 3 : "Expected 3 entries after the append, got " + again.size();
+        assert "three".equals(again.get("tres")) : "Append after recovery was lost";
+        assert "one".equals(again.get("uno")) : "Entry before the truncated line was lost";
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDir() {
+        FileUtils.deleteQuietly(dir.toFile());
+    }
+}
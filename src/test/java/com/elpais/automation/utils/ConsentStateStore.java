@@ -0,0 +1,272 @@
+package com.elpais.automation.utils;
+
+import com.elpais.automation.config.ConfigManager;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Persists the Didomi consent cookies and localStorage so later sessions can skip the cookie banner
+public class ConsentStateStore {
+    private static final Logger logger = LogManager.getLogger(ConsentStateStore.class);
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final long CAPTURE_TIMEOUT_MS = 3000;
+
+    // Reads the consent-related localStorage entries
+    private static final String READ_STORAGE_SCRIPT =
+            "var prefixes = arguments[0], items = {};"
+            + "for (var i = 0; i < localStorage.length; i++) {"
+            + "  var key = localStorage.key(i);"
+            + "  if (prefixes.some(function (p) { return key.indexOf(p) === 0; })) {"
+            + "    items[key] = localStorage.getItem(key);"
+            + "  }"
+            + "}"
+            + "return items;";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var items = arguments[0];"
+            + "for (var key in items) { localStorage.setItem(key, items[key]); }";
+
+    // Waits for the Didomi SDK (didomiOnReady runs immediately once it is loaded) and reports whether
+    // it still wants to collect consent or shows its notice; null when the SDK is not ready in time
+    private static final String CONSENT_STATUS_SCRIPT =
+            "var timeoutMs = arguments[0], done = arguments[arguments.length - 1], finished = false;"
+            + "var finish = function (result) { if (!finished) { finished = true; done(result); } };"
+            + "setTimeout(function () { finish(null); }, timeoutMs);"
+            + "window.didomiOnReady = window.didomiOnReady || [];"
+            + "window.didomiOnReady.push(function (Didomi) {"
+            + "  finish(Didomi.shouldConsentBeCollected() || Didomi.notice.isVisible());"
+            + "});";
+
+    private ConsentStateStore() {
+    }
+
+    // Whether consent persistence is enabled
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("feature.persistConsent", false);
+    }
+
+    // Inject stored consent for the url's origin before the first real navigation.
+    // Returns false when there is no usable state, so the caller handles the banner and captures it again.
+    public static synchronized boolean apply(WebDriver driver, String url) {
+        ConsentState state = load();
+        if (state == null) {
+            logger.info("No stored consent state at {}", getStorePath());
+            return false;
+        }
+        if (isExpired(state)) {
+            logger.info("Stored consent state expired, it will be refreshed from the cookie banner");
+            return false;
+        }
+
+        try {
+            // Cookies and localStorage can only be set on the target origin, so load a lightweight page there first
+            String origin = getOrigin(url);
+            driver.get(origin + "/robots.txt");
+
+            for (StoredCookie stored : state.cookies) {
+                driver.manage().addCookie(stored.toCookie());
+            }
+            if (!state.localStorage.isEmpty()) {
+                ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, state.localStorage);
+            }
+
+            logger.info("Injected {} consent cookies and {} localStorage entries",
+                    state.cookies.size(), state.localStorage.size());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to inject consent state: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Capture consent cookies and localStorage after the banner has been accepted
+    public static synchronized void capture(WebDriver driver) {
+        List<String> prefixes = getPrefixes();
+        List<StoredCookie> cookies = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + CAPTURE_TIMEOUT_MS;
+
+        try {
+            // The consent platform writes its cookies asynchronously after the click
+            while (cookies.isEmpty() && System.currentTimeMillis() < deadline) {
+                for (Cookie cookie : driver.manage().getCookies()) {
+                    if (matchesPrefix(cookie.getName(), prefixes)) {
+                        cookies.add(StoredCookie.from(cookie));
+                    }
+                }
+                if (cookies.isEmpty()) {
+                    TimeUnit.MILLISECONDS.sleep(200);
+                }
+            }
+
+            if (cookies.isEmpty()) {
+                logger.warn("No consent cookies found to capture");
+                return;
+            }
+
+            @SuppressWarnings("unchecked")
+            Map<String, String> storage = (Map<String, String>) ((JavascriptExecutor) driver)
+                    .executeScript(READ_STORAGE_SCRIPT, prefixes);
+
+            ConsentState state = new ConsentState();
+            state.capturedAt = System.currentTimeMillis();
+            state.cookies = cookies;
+            state.localStorage = storage != null ? new HashMap<>(storage) : new HashMap<>();
+            save(state);
+
+            logger.info("Captured {} consent cookies and {} localStorage entries to {}",
+                    cookies.size(), state.localStorage.size(), getStorePath());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Failed to capture consent state: {}", e.getMessage());
+        }
+    }
+
+    // After navigating with injected state: TRUE when the consent SDK accepted it, FALSE when it
+    // will show the banner anyway, null when the SDK did not report within consent.sdkTimeoutMs
+    public static Boolean isConsentRestored(WebDriver driver) {
+        try {
+            Object needsConsent = ((JavascriptExecutor) driver).executeAsyncScript(CONSENT_STATUS_SCRIPT,
+                    ConfigManager.getLong("consent.sdkTimeoutMs", 5000));
+            return needsConsent instanceof Boolean ? !(Boolean) needsConsent : null;
+        } catch (Exception e) {
+            logger.warn("Failed to read consent status: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Drop the stored state, e.g. when the banner shows up despite injected consent
+    public static synchronized void invalidate() {
+        try {
+            Files.deleteIfExists(getStorePath());
+            logger.info("Consent state invalidated");
+        } catch (Exception e) {
+            logger.warn("Failed to delete consent state: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isExpired(ConsentState state) {
+        long maxAgeMs = TimeUnit.HOURS.toMillis(ConfigManager.getLong("consent.maxAgeHours", 168));
+        long now = System.currentTimeMillis();
+        if (now - state.capturedAt > maxAgeMs) {
+            return true;
+        }
+        for (StoredCookie cookie : state.cookies) {
+            if (cookie.expiry != null && cookie.expiry <= now) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ConsentState load() {
+        Path path = getStorePath();
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            ConsentState state = gson.fromJson(reader, ConsentState.class);
+            return state != null && state.cookies != null && !state.cookies.isEmpty() ? state : null;
+        } catch (Exception e) {
+            logger.warn("Unreadable consent state at {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void save(ConsentState state) throws Exception {
+        Path path = getStorePath();
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            gson.toJson(state, writer);
+        }
+    }
+
+    private static Path getStorePath() {
+        return Paths.get(ConfigManager.get("consent.store.path", "./consent/didomi-consent.json"));
+    }
+
+    private static List<String> getPrefixes() {
+        return Arrays.asList(ConfigManager.get("consent.prefixes", "didomi,euconsent").split("\\s*,\\s*"));
+    }
+
+    private static boolean matchesPrefix(String name, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getOrigin(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+    }
+
+    // Serialized consent snapshot
+    private static class ConsentState {
+        long capturedAt;
+        List<StoredCookie> cookies = new ArrayList<>();
+        Map<String, String> localStorage = new HashMap<>();
+    }
+
+    // Serialized cookie; expiry is epoch millis, null for session cookies
+    private static class StoredCookie {
+        String name;
+        String value;
+        String domain;
+        String path;
+        Long expiry;
+        boolean secure;
+        boolean httpOnly;
+        String sameSite;
+
+        static StoredCookie from(Cookie cookie) {
+            StoredCookie stored = new StoredCookie();
+            stored.name = cookie.getName();
+            stored.value = cookie.getValue();
+            stored.domain = cookie.getDomain();
+            stored.path = cookie.getPath();
+            stored.expiry = cookie.getExpiry() != null ? cookie.getExpiry().getTime() : null;
+            stored.secure = cookie.isSecure();
+            stored.httpOnly = cookie.isHttpOnly();
+            stored.sameSite = cookie.getSameSite();
+            return stored;
+        }
+
+        Cookie toCookie() {
+            Cookie.Builder builder = new Cookie.Builder(name, value)
+                    .domain(domain)
+                    .path(path != null ? path : "/")
+                    .isSecure(secure)
+                    .isHttpOnly(httpOnly);
+            if (expiry != null) {
+                builder.expiresOn(new Date(expiry));
+            }
+            if (sameSite != null) {
+                builder.sameSite(sameSite);
+            }
+            return builder.build();
+        }
+    }
+}
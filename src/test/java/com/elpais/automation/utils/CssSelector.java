@@ -0,0 +1,358 @@
+package com.elpais.automation.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+// Minimal CSS selector matcher for HtmlElement: selector groups (a, b), descendant and child
+// combinators, type, universal, .class and #id selectors, [attr], [attr=v], [attr~=v], [attr|=v],
+// [attr^=v], [attr$=v], [attr*=v] attribute selectors, and the :first-child, :last-child,
+// :nth-child(an+b) and :not(compound) pseudo-classes. Anything else is rejected when parsed.
+public class CssSelector {
+    private static final Map<String, CssSelector> cache = new ConcurrentHashMap<>();
+
+    // Each alternative is a chain of compounds, rightmost last
+    private final List<List<Compound>> alternatives;
+
+    private CssSelector(List<List<Compound>> alternatives) {
+        this.alternatives = alternatives;
+    }
+
+    public static CssSelector parse(String selector) {
+        return cache.computeIfAbsent(selector, CssSelector::compile);
+    }
+
+    public boolean matches(HtmlElement element) {
+        for (List<Compound> chain : alternatives) {
+            if (matchesChain(element, chain, chain.size() - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesChain(HtmlElement element, List<Compound> chain, int index) {
+        Compound compound = chain.get(index);
+        if (!compound.matches(element)) {
+            return false;
+        }
+        if (index == 0) {
+            return true;
+        }
+        HtmlElement ancestor = element.getParent();
+        if (compound.childOfPrevious) {
+            return ancestor != null && matchesChain(ancestor, chain, index - 1);
+        }
+        for (; ancestor != null; ancestor = ancestor.getParent()) {
+            if (matchesChain(ancestor, chain, index - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static CssSelector compile(String selector) {
+        List<List<Compound>> alternatives = new ArrayList<>();
+        for (String alternative : splitGroup(selector)) {
+            alternatives.add(new Parser(alternative.trim(), selector).parseChain());
+        }
+        return new CssSelector(alternatives);
+    }
+
+    // Split on top-level commas, leaving commas inside quoted values and :not(...) alone
+    private static List<String> splitGroup(String selector) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        int depth = 0;
+        for (char c : selector.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(current.toString());
+                current.setLength(0);
+                continue;
+            }
+            current.append(c);
+        }
+        parts.add(current.toString());
+        return parts;
+    }
+
+    // Type selector plus any number of class, id and attribute conditions
+    private static class Compound {
+        private String tagName;
+        private boolean childOfPrevious;
+        private final List<String> classes = new ArrayList<>();
+        private final List<String[]> attributes = new ArrayList<>();
+        private final List<Predicate<HtmlElement>> pseudoClasses = new ArrayList<>();
+        private String id;
+
+        boolean matches(HtmlElement element) {
+            if (tagName != null && !tagName.equals(element.getTagName())) {
+                return false;
+            }
+            if (id != null && !id.equals(element.attr("id"))) {
+                return false;
+            }
+            if (!classes.isEmpty() && !element.classNames().containsAll(classes)) {
+                return false;
+            }
+            for (String[] condition : attributes) {
+                if (!matchesAttribute(element.attr(condition[0]), condition[1], condition[2])) {
+                    return false;
+                }
+            }
+            for (Predicate<HtmlElement> pseudoClass : pseudoClasses) {
+                if (!pseudoClass.test(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean matchesAttribute(String actual, String operator, String expected) {
+            if (actual == null) {
+                return false;
+            }
+            switch (operator) {
+                case "":
+                    return true;
+                case "=":
+                    return actual.equals(expected);
+                case "~=":
+                    return List.of(actual.trim().split("\\s+")).contains(expected);
+                case "|=":
+                    return actual.equals(expected) || actual.startsWith(expected + "-");
+                case "^=":
+                    return !expected.isEmpty() && actual.startsWith(expected);
+                case "$=":
+                    return !expected.isEmpty() && actual.endsWith(expected);
+                case "*=":
+                    return !expected.isEmpty() && actual.contains(expected);
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private static class Parser {
+        private final String input;
+        private final String selector;
+        private int pos;
+
+        Parser(String input, String selector) {
+            this.input = input;
+            this.selector = selector;
+        }
+
+        List<Compound> parseChain() {
+            List<Compound> chain = new ArrayList<>();
+            boolean child = false;
+            while (true) {
+                skipWhitespace();
+                if (pos >= input.length()) {
+                    break;
+                }
+                if (input.charAt(pos) == '>') {
+                    if (chain.isEmpty() || child) {
+                        throw error("misplaced '>'");
+                    }
+                    child = true;
+                    pos++;
+                    continue;
+                }
+                Compound compound = parseCompound();
+                compound.childOfPrevious = child;
+                chain.add(compound);
+                child = false;
+            }
+            if (chain.isEmpty() || child) {
+                throw error("empty selector");
+            }
+            return chain;
+        }
+
+        private Compound parseCompound() {
+            Compound compound = new Compound();
+            int start = pos;
+            if (input.charAt(pos) == '*') {
+                pos++;
+            } else if (isNameChar(input.charAt(pos))) {
+                compound.tagName = readName().toLowerCase();
+            }
+            while (pos < input.length()) {
+                char c = input.charAt(pos);
+                if (c == '.') {
+                    pos++;
+                    compound.classes.add(readName());
+                } else if (c == '#') {
+                    pos++;
+                    compound.id = readName();
+                } else if (c == '[') {
+                    pos++;
+                    compound.attributes.add(readAttribute());
+                } else if (c == ':') {
+                    pos++;
+                    compound.pseudoClasses.add(readPseudoClass());
+                } else if (Character.isWhitespace(c) || c == '>' || c == ')') {
+                    break;
+                } else {
+                    throw error("unsupported '" + c + "'");
+                }
+            }
+            if (pos == start) {
+                throw error("unexpected '" + input.charAt(pos) + "'");
+            }
+            return compound;
+        }
+
+        private String[] readAttribute() {
+            skipWhitespace();
+            String name = readName().toLowerCase();
+            skipWhitespace();
+            String operator = "";
+            String value = "";
+            if (pos < input.length() && input.charAt(pos) != ']') {
+                if (input.charAt(pos) == '=') {
+                    operator = "=";
+                } else if (input.startsWith("=", pos + 1) && "~|^$*".indexOf(input.charAt(pos)) >= 0) {
+                    operator = input.substring(pos, pos + 2);
+                } else {
+                    throw error("unsupported attribute operator");
+                }
+                pos += operator.length();
+                skipWhitespace();
+                if (pos >= input.length()) {
+                    throw error("missing attribute value");
+                }
+                value = readValue();
+                skipWhitespace();
+            }
+            if (pos >= input.length() || input.charAt(pos) != ']') {
+                throw error("unterminated attribute selector");
+            }
+            pos++;
+            return new String[]{name, operator, value};
+        }
+
+        private Predicate<HtmlElement> readPseudoClass() {
+            String name = readName().toLowerCase();
+            switch (name) {
+                case "first-child":
+                    return element -> element.getElementIndex() == 1;
+                case "last-child":
+                    return element -> element.getElementIndex() == element.getElementSiblingCount();
+                case "nth-child":
+                    int[] formula = parseNth(readArgument().trim().toLowerCase());
+                    return element -> matchesNth(element.getElementIndex(), formula[0], formula[1]);
+                case "not":
+                    Parser inner = new Parser(readArgument().trim(), selector);
+                    if (inner.input.isEmpty()) {
+                        throw error("empty :not()");
+                    }
+                    Compound negated = inner.parseCompound();
+                    if (inner.pos < inner.input.length()) {
+                        throw error(":not() takes a single compound selector");
+                    }
+                    return element -> !negated.matches(element);
+                default:
+                    throw error("unsupported pseudo-class ':" + name + "'");
+            }
+        }
+
+        // Text between the parentheses following the current position
+        private String readArgument() {
+            if (pos >= input.length() || input.charAt(pos) != '(') {
+                throw error("expected '('");
+            }
+            int end = input.indexOf(')', pos);
+            if (end < 0) {
+                throw error("unterminated '('");
+            }
+            String argument = input.substring(pos + 1, end);
+            pos = end + 1;
+            return argument;
+        }
+
+        // an+b as {a, b}; also odd, even and a plain number
+        private int[] parseNth(String formula) {
+            try {
+                if ("odd".equals(formula)) {
+                    return new int[]{2, 1};
+                }
+                if ("even".equals(formula)) {
+                    return new int[]{2, 0};
+                }
+                String compact = formula.replaceAll("\\s+", "");
+                int n = compact.indexOf('n');
+                if (n < 0) {
+                    return new int[]{0, Integer.parseInt(compact)};
+                }
+                String a = compact.substring(0, n);
+                String b = compact.substring(n + 1);
+                return new int[]{
+                        a.isEmpty() || "+".equals(a) ? 1 : "-".equals(a) ? -1 : Integer.parseInt(a),
+                        b.isEmpty() ? 0 : Integer.parseInt(b.startsWith("+") ? b.substring(1) : b)};
+            } catch (NumberFormatException e) {
+                throw error("invalid :nth-child argument '" + formula + "'");
+            }
+        }
+
+        private static boolean matchesNth(int index, int a, int b) {
+            if (a == 0) {
+                return index == b;
+            }
+            return (index - b) / a >= 0 && (index - b) % a == 0;
+        }
+
+        private String readValue() {
+            char quote = input.charAt(pos);
+            if (quote == '\'' || quote == '"') {
+                int end = input.indexOf(quote, pos + 1);
+                if (end < 0) {
+                    throw error("unterminated string");
+                }
+                String value = input.substring(pos + 1, end);
+                pos = end + 1;
+                return value;
+            }
+            return readName();
+        }
+
+        private String readName() {
+            int start = pos;
+            while (pos < input.length() && isNameChar(input.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("expected a name");
+            }
+            return input.substring(start, pos);
+        }
+
+        private void skipWhitespace() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Unsupported CSS selector '" + selector + "': " + message);
+        }
+    }
+}
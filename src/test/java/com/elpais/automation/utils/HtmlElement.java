@@ -0,0 +1,153 @@
+package com.elpais.automation.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Element of a document parsed by HtmlParser; supports the CSS selector subset the page objects use
+public class HtmlElement {
+    // Marks <br> while source whitespace is collapsed
+    private static final char LINE_BREAK = '\u0000';
+
+    private final String tagName;
+    private final Map<String, String> attributes;
+    private final List<Object> children = new ArrayList<>();
+    private HtmlElement parent;
+
+    HtmlElement(String tagName, Map<String, String> attributes) {
+        this.tagName = tagName;
+        this.attributes = attributes != null ? attributes : new LinkedHashMap<>();
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public HtmlElement getParent() {
+        return parent;
+    }
+
+    // 1-based position among the parent's child elements
+    int getElementIndex() {
+        if (parent == null) {
+            return 1;
+        }
+        int index = 0;
+        for (Object sibling : parent.children) {
+            if (sibling instanceof HtmlElement) {
+                index++;
+                if (sibling == this) {
+                    return index;
+                }
+            }
+        }
+        return index;
+    }
+
+    // Number of child elements of the parent, this one included
+    int getElementSiblingCount() {
+        if (parent == null) {
+            return 1;
+        }
+        return (int) parent.children.stream().filter(sibling -> sibling instanceof HtmlElement).count();
+    }
+
+    // Raw attribute value, or null when the attribute is absent
+    public String attr(String name) {
+        return attributes.get(name.toLowerCase());
+    }
+
+    public boolean hasAttr(String name) {
+        return attributes.containsKey(name.toLowerCase());
+    }
+
+    // Whitespace-separated class names
+    public List<String> classNames() {
+        String classes = attr("class");
+        if (classes == null || classes.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(classes.trim().split("\\s+"));
+    }
+
+    // Text content with whitespace collapsed the way WebElement.getText() reports it for inline text
+    // (<br> becomes a line break); script and style contents are skipped
+    public String text() {
+        StringBuilder text = new StringBuilder();
+        appendText(text);
+        return text.toString().replace('\u00a0', ' ')
+                .replaceAll("\\s+", " ")
+                .replaceAll(" ?" + LINE_BREAK + " ?", "\n")
+                .trim();
+    }
+
+    private void appendText(StringBuilder text) {
+        if ("script".equals(tagName) || "style".equals(tagName) || "noscript".equals(tagName)) {
+            return;
+        }
+        for (Object child : children) {
+            if (child instanceof HtmlElement) {
+                HtmlElement element = (HtmlElement) child;
+                if ("br".equals(element.tagName)) {
+                    text.append(LINE_BREAK);
+                } else {
+                    element.appendText(text);
+                }
+            } else {
+                text.append((String) child);
+            }
+        }
+    }
+
+    // Descendants matching the selector, in document order (same scoping as WebElement.findElements)
+    public List<HtmlElement> select(String selector) {
+        CssSelector css = CssSelector.parse(selector);
+        List<HtmlElement> matches = new ArrayList<>();
+        collect(css, matches, Integer.MAX_VALUE);
+        return matches;
+    }
+
+    // First descendant matching the selector, or null
+    public HtmlElement selectFirst(String selector) {
+        List<HtmlElement> matches = new ArrayList<>(1);
+        collect(CssSelector.parse(selector), matches, 1);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    private void collect(CssSelector css, List<HtmlElement> matches, int limit) {
+        for (Object child : children) {
+            if (matches.size() >= limit) {
+                return;
+            }
+            if (child instanceof HtmlElement) {
+                HtmlElement element = (HtmlElement) child;
+                if (css.matches(element)) {
+                    matches.add(element);
+                }
+                element.collect(css, matches, limit);
+            }
+        }
+    }
+
+    void appendChild(HtmlElement child) {
+        child.parent = this;
+        children.add(child);
+    }
+
+    void appendText(String text) {
+        int last = children.size() - 1;
+        if (last >= 0 && children.get(last) instanceof String) {
+            children.set(last, children.get(last) + text);
+        } else {
+            children.add(text);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "<" + tagName + attributes + ">";
+    }
+}
@@ -0,0 +1,281 @@
+package com.elpais.automation.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Lenient HTML parser for browserless scraping. Builds an HtmlElement tree with the parts of the
+// HTML tree-construction rules that matter for server-rendered listings: void elements, raw-text
+// elements, implied </p> and </li>, unmatched end tags ignored, and character references decoded.
+// It does not run scripts, so content rendered client-side is not present.
+public class HtmlParser {
+    private static final Set<String> VOID_ELEMENTS = Set.of("area", "base", "br", "col", "embed", "hr", "img",
+            "input", "link", "meta", "param", "source", "track", "wbr");
+
+    // Contents are kept as text; noscript is raw text in a browser with scripting enabled
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style", "textarea", "title", "noscript");
+
+    // Start tags that close an open <p>
+    private static final Set<String> CLOSES_PARAGRAPH = Set.of("address", "article", "aside", "blockquote", "div",
+            "dl", "fieldset", "figcaption", "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6", "header",
+            "hr", "main", "nav", "ol", "p", "pre", "section", "table", "ul");
+
+    private static final Map<String, String> ENTITIES = new HashMap<>();
+
+    static {
+        String[][] entities = {
+                {"amp", "&"}, {"lt", "<"}, {"gt", ">"}, {"quot", "\""}, {"apos", "'"}, {"nbsp", "\u00a0"},
+                {"aacute", "á"}, {"eacute", "é"}, {"iacute", "í"}, {"oacute", "ó"}, {"uacute", "ú"},
+                {"Aacute", "Á"}, {"Eacute", "É"}, {"Iacute", "Í"}, {"Oacute", "Ó"}, {"Uacute", "Ú"},
+                {"ntilde", "ñ"}, {"Ntilde", "Ñ"}, {"uuml", "ü"}, {"Uuml", "Ü"}, {"ccedil", "ç"},
+                {"iexcl", "¡"}, {"iquest", "¿"}, {"laquo", "«"}, {"raquo", "»"}, {"ordf", "ª"}, {"ordm", "º"},
+                {"lsquo", "‘"}, {"rsquo", "’"}, {"ldquo", "“"}, {"rdquo", "”"},
+                {"ndash", "–"}, {"mdash", "—"}, {"hellip", "…"}, {"middot", "·"},
+                {"euro", "€"}, {"copy", "©"}, {"reg", "®"}, {"deg", "°"}
+        };
+        for (String[] entity : entities) {
+            ENTITIES.put(entity[0], entity[1]);
+        }
+    }
+
+    private final String html;
+    private final HtmlElement root = new HtmlElement("#document", null);
+    private final Deque<HtmlElement> open = new ArrayDeque<>();
+    private int pos;
+
+    private HtmlParser(String html) {
+        this.html = html;
+        open.push(root);
+    }
+
+    // Parse a document; the returned root contains the top-level elements
+    public static HtmlElement parse(String html) {
+        HtmlParser parser = new HtmlParser(html);
+        parser.run();
+        return parser.root;
+    }
+
+    private void run() {
+        while (pos < html.length()) {
+            int lt = html.indexOf('<', pos);
+            if (lt < 0) {
+                appendText(html.substring(pos));
+                break;
+            }
+            if (lt > pos) {
+                appendText(html.substring(pos, lt));
+            }
+            pos = lt;
+
+            if (html.startsWith("<!--", pos)) {
+                int end = html.indexOf("-->", pos + 4);
+                pos = end < 0 ? html.length() : end + 3;
+            } else if (html.startsWith("</", pos) && pos + 2 < html.length() && Character.isLetter(html.charAt(pos + 2))) {
+                readEndTag();
+            } else if (html.startsWith("<!", pos) || html.startsWith("<?", pos) || html.startsWith("</", pos)) {
+                int end = html.indexOf('>', pos);
+                pos = end < 0 ? html.length() : end + 1;
+            } else if (pos + 1 < html.length() && Character.isLetter(html.charAt(pos + 1))) {
+                readStartTag();
+            } else {
+                appendText("<");
+                pos++;
+            }
+        }
+    }
+
+    private void readStartTag() {
+        pos++;
+        String name = readTagName();
+        Map<String, String> attributes = new LinkedHashMap<>();
+        boolean selfClosing = false;
+
+        while (pos < html.length()) {
+            skipWhitespace();
+            if (pos >= html.length()) {
+                break;
+            }
+            char c = html.charAt(pos);
+            if (c == '>') {
+                pos++;
+                break;
+            }
+            if (c == '/') {
+                selfClosing = html.startsWith("/>", pos);
+                pos++;
+                continue;
+            }
+            readAttribute(attributes);
+        }
+
+        if (CLOSES_PARAGRAPH.contains(name)) {
+            closeIfOpen("p", Set.of("button"));
+        } else if ("li".equals(name)) {
+            closeIfOpen("li", Set.of("ul", "ol"));
+        }
+
+        HtmlElement element = new HtmlElement(name, attributes);
+        open.peek().appendChild(element);
+
+        if (RAW_TEXT_ELEMENTS.contains(name)) {
+            int end = indexOfIgnoreCase("</" + name, pos);
+            String text = html.substring(pos, end < 0 ? html.length() : end);
+            element.appendText("textarea".equals(name) || "title".equals(name) ? decode(text) : text);
+            int close = end < 0 ? -1 : html.indexOf('>', end);
+            pos = close < 0 ? html.length() : close + 1;
+        } else if (!VOID_ELEMENTS.contains(name) && !selfClosing) {
+            open.push(element);
+        }
+    }
+
+    private void readEndTag() {
+        pos += 2;
+        String name = readTagName();
+        int end = html.indexOf('>', pos);
+        pos = end < 0 ? html.length() : end + 1;
+
+        // Pop up to the matching open element; an end tag with no open match is ignored
+        for (HtmlElement element : open) {
+            if (element == root) {
+                return;
+            }
+            if (element.getTagName().equals(name)) {
+                while (open.pop() != element) {
+                    // discard elements left open inside it
+                }
+                return;
+            }
+        }
+    }
+
+    // Close the nearest open element with the name unless a scope boundary comes first
+    private void closeIfOpen(String name, Set<String> scopeBoundaries) {
+        Iterator<HtmlElement> iterator = open.iterator();
+        while (iterator.hasNext()) {
+            HtmlElement element = iterator.next();
+            if (element == root || scopeBoundaries.contains(element.getTagName())) {
+                return;
+            }
+            if (element.getTagName().equals(name)) {
+                while (open.pop() != element) {
+                    // discard elements left open inside it
+                }
+                return;
+            }
+        }
+    }
+
+    private void readAttribute(Map<String, String> attributes) {
+        int start = pos;
+        while (pos < html.length()) {
+            char c = html.charAt(pos);
+            if (Character.isWhitespace(c) || c == '=' || c == '>' || (c == '/' && pos > start)) {
+                break;
+            }
+            pos++;
+        }
+        String name = html.substring(start, pos).toLowerCase();
+        if (name.isEmpty()) {
+            pos++;
+            return;
+        }
+
+        skipWhitespace();
+        String value = "";
+        if (pos < html.length() && html.charAt(pos) == '=') {
+            pos++;
+            skipWhitespace();
+            if (pos < html.length() && (html.charAt(pos) == '"' || html.charAt(pos) == '\'')) {
+                char quote = html.charAt(pos);
+                int end = html.indexOf(quote, pos + 1);
+                value = html.substring(pos + 1, end < 0 ? html.length() : end);
+                pos = end < 0 ? html.length() : end + 1;
+            } else {
+                int valueStart = pos;
+                while (pos < html.length() && !Character.isWhitespace(html.charAt(pos)) && html.charAt(pos) != '>') {
+                    pos++;
+                }
+                value = html.substring(valueStart, pos);
+            }
+        }
+        // The first occurrence of a duplicated attribute wins, as in a browser
+        attributes.putIfAbsent(name, decode(value));
+    }
+
+    private String readTagName() {
+        int start = pos;
+        while (pos < html.length()) {
+            char c = html.charAt(pos);
+            if (Character.isWhitespace(c) || c == '>' || c == '/') {
+                break;
+            }
+            pos++;
+        }
+        return html.substring(start, pos).toLowerCase();
+    }
+
+    private void appendText(String text) {
+        open.peek().appendText(decode(text));
+    }
+
+    private void skipWhitespace() {
+        while (pos < html.length() && Character.isWhitespace(html.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private int indexOfIgnoreCase(String target, int from) {
+        int limit = html.length() - target.length();
+        for (int i = from; i <= limit; i++) {
+            if (html.regionMatches(true, i, target, 0, target.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Decode named and numeric character references; unknown references are left as written
+    static String decode(String text) {
+        int amp = text.indexOf('&');
+        if (amp < 0) {
+            return text;
+        }
+        StringBuilder decoded = new StringBuilder(text.length());
+        int last = 0;
+        while (amp >= 0) {
+            int semicolon = text.indexOf(';', amp);
+            if (semicolon < 0) {
+                break;
+            }
+            if (semicolon - amp > 10) {
+                amp = text.indexOf('&', amp + 1);
+                continue;
+            }
+            String reference = text.substring(amp + 1, semicolon);
+            String replacement = null;
+            if (reference.startsWith("#")) {
+                try {
+                    int codePoint = reference.startsWith("#x") || reference.startsWith("#X")
+                            ? Integer.parseInt(reference.substring(2), 16)
+                            : Integer.parseInt(reference.substring(1));
+                    replacement = new String(Character.toChars(codePoint));
+                } catch (IllegalArgumentException e) {
+                    replacement = null;
+                }
+            } else {
+                replacement = ENTITIES.get(reference);
+            }
+            if (replacement != null) {
+                decoded.append(text, last, amp).append(replacement);
+                last = semicolon + 1;
+            }
+            amp = text.indexOf('&', replacement != null ? semicolon + 1 : amp + 1);
+        }
+        decoded.append(text.substring(last));
+        return decoded.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package com.elpais.automation.utils;
+
+import com.google.gson.Gson;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Coalesces translation requests into array requests: texts submitted within windowMs of the first
+// pending one are sent together, split into batches of at most maxItems texts and maxBytes of JSON
+// payload. A batch is sent as soon as it is full, without waiting for the window. Each caller gets
+// its own text's translation back.
+public class TranslationBatcher {
+    private static final Logger logger = LogManager.getLogger(TranslationBatcher.class);
+    private static final Gson gson = new Gson();
+
+    private final TranslationClient client;
+    private final int maxItems;
+    private final int maxBytes;
+    private final long windowMs;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "translation-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private List<PendingText> pending = new ArrayList<>();
+    private int pendingBytes;
+    private ScheduledFuture<?> windowTimer;
+
+    public TranslationBatcher(TranslationClient client, int maxItems, int maxBytes, long windowMs) {
+        this.client = client;
+        this.maxItems = Math.max(1, maxItems);
+        this.maxBytes = maxBytes;
+        this.windowMs = windowMs;
+    }
+
+    // Queue a text for the current batch; completes with the original text if translation fails
+    public CompletableFuture<String> submit(String text) {
+        PendingText entry = new PendingText(text);
+        List<PendingText> full = null;
+        synchronized (this) {
+            if (!pending.isEmpty() && pendingBytes + entry.bytes > maxBytes) {
+                full = takePending();
+            }
+            pending.add(entry);
+            pendingBytes += entry.bytes;
+            if (pending.size() >= maxItems || pendingBytes >= maxBytes) {
+                List<PendingText> batch = takePending();
+                full = full == null ? batch : concat(full, batch);
+            } else if (windowTimer == null) {
+                windowTimer = timer.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return entry.result;
+    }
+
+    // Send whatever is pending now
+    public void flush() {
+        List<PendingText> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        send(batch);
+    }
+
+    private List<PendingText> takePending() {
+        List<PendingText> batch = pending;
+        pending = new ArrayList<>();
+        pendingBytes = 0;
+        if (windowTimer != null) {
+            windowTimer.cancel(false);
+            windowTimer = null;
+        }
+        return batch;
+    }
+
+    private static List<PendingText> concat(List<PendingText> first, List<PendingText> second) {
+        List<PendingText> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    // Split into batches within the limits (the byte limit may have been crossed by the last text)
+    private void send(List<PendingText> texts) {
+        List<PendingText> batch = new ArrayList<>();
+        int bytes = 0;
+        for (PendingText text : texts) {
+            if (!batch.isEmpty() && (batch.size() >= maxItems || bytes + text.bytes > maxBytes)) {
+                sendBatch(batch);
+                batch = new ArrayList<>();
+                bytes = 0;
+            }
+            batch.add(text);
+            bytes += text.bytes;
+        }
+        if (!batch.isEmpty()) {
+            sendBatch(batch);
+        }
+    }
+
+    private void sendBatch(List<PendingText> batch) {
+        if (batch.size() == 1) {
+            PendingText only = batch.get(0);
+            client.translateAsync(only.text).whenComplete((translation, error) ->
+                    only.result.complete(translation != null ? translation : only.text));
+            return;
+        }
+        List<String> texts = new ArrayList<>(batch.size());
+        for (PendingText text : batch) {
+            texts.add(text.text);
+        }
+        logger.debug("Sending {} texts in one translation request", texts.size());
+        // Every caller is answered, with its original text if the request failed or came back short
+        client.translateBatchAsync(texts).whenComplete((translations, error) -> {
+            if (error != null) {
+                logger.error("Batch translation of {} texts failed: {}", texts.size(), error.toString());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                PendingText text = batch.get(i);
+                boolean translated = translations != null && i < translations.size() && translations.get(i) != null;
+                text.result.complete(translated ? translations.get(i) : text.text);
+            }
+        });
+    }
+
+    // A queued text with its JSON-encoded size in the array payload (including the separator)
+    private static class PendingText {
+        private final String text;
+        private final int bytes;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        PendingText(String text) {
+            this.text = text;
+            this.bytes = gson.toJson(text).getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+    }
+}
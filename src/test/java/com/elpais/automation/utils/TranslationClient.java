@@ -0,0 +1,242 @@
+package com.elpais.automation.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Long-lived client for the Rapid Translate Multi Traduction API: one java.net.http client (HTTP/2
+// where the server supports it, pooled keep-alive connections otherwise) shared by all requests,
+// with at most maxInFlight requests outstanding. Further requests wait in a queue without blocking
+// the caller. Failed translations complete with the original text.
+public class TranslationClient {
+    private static final Logger logger = LogManager.getLogger(TranslationClient.class);
+    private static final Gson gson = new Gson();
+
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final String apiKey;
+    private final String apiHost;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // drain() calls not yet served by the running drain loop; non-zero while one is running
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    // Cleared when the endpoint answers an array request with anything but an array of translations
+    private volatile boolean arraysSupported = true;
+
+    public TranslationClient(String endpoint, String apiKey, String apiHost, int maxInFlight,
+                             long connectTimeoutMs, long requestTimeoutMs) {
+        this(HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                        .build(),
+                endpoint, apiKey, apiHost, maxInFlight, requestTimeoutMs);
+    }
+
+    // Send through the given client instead of a new one
+    public TranslationClient(HttpClient httpClient, String endpoint, String apiKey, String apiHost, int maxInFlight,
+                             long requestTimeoutMs) {
+        this.httpClient = httpClient;
+        this.endpoint = URI.create(endpoint);
+        this.apiKey = apiKey;
+        this.apiHost = apiHost;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+
+    // Translate text from Spanish to English; queued while maxInFlight requests are outstanding
+    public CompletableFuture<String> translateAsync(String text) {
+        return enqueue(() -> send(text), text, "'" + text + "'");
+    }
+
+    // Translate several texts in one request with an array payload; the translations come back in
+    // the same order. Falls back to one request per text if the endpoint does not accept arrays.
+    public CompletableFuture<List<String>> translateBatchAsync(List<String> texts) {
+        if (!arraysSupported) {
+            return translateEach(texts);
+        }
+        return enqueue(() -> sendBatch(texts), null, texts.size() + " texts")
+                .thenCompose(translations -> translations != null
+                        ? CompletableFuture.completedFuture(translations)
+                        : translateEach(texts));
+    }
+
+    private CompletableFuture<List<String>> translateEach(List<String> texts) {
+        List<CompletableFuture<String>> translations = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            translations.add(translateAsync(text));
+        }
+        return CompletableFuture.allOf(translations.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<String> results = new ArrayList<>(translations.size());
+            for (CompletableFuture<String> translation : translations) {
+                results.add(translation.join());
+            }
+            return results;
+        });
+    }
+
+    // Queue a request behind the in-flight limit; an error completes the result with the fallback
+    private <T> CompletableFuture<T> enqueue(Supplier<CompletableFuture<T>> request, T fallback, String description) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.add(() -> {
+            CompletableFuture<T> response;
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((value, error) -> {
+                inFlight.decrementAndGet();
+                drain();
+                if (error != null) {
+                    logger.error("RapidAPI translation error for {}: {}", description, error.toString());
+                    result.complete(fallback);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        drain();
+        return result;
+    }
+
+    // Requests currently on the wire
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Start queued requests while there is capacity; every enqueue and every completion calls this,
+    // so a slot freed concurrently with an enqueue is always picked up by one of them. Only one call
+    // runs the loop at a time; the others make it go round again, so a request that completes
+    // synchronously returns here instead of recursing into the next one.
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            startPending();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void startPending() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable task = pending.poll();
+            if (task == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            task.run();
+        }
+    }
+
+    private CompletableFuture<String> send(String text) {
+        JsonObject jsonBody = new JsonObject();
+        jsonBody.addProperty("from", "es");
+        jsonBody.addProperty("to", "en");
+        jsonBody.addProperty("text", text);
+        return post(jsonBody).thenApply(responseBody -> parseResponse(text, responseBody));
+    }
+
+    // Translations in request order, or null when the response is not an array of the same size
+    private CompletableFuture<List<String>> sendBatch(List<String> texts) {
+        JsonObject jsonBody = new JsonObject();
+        jsonBody.addProperty("from", "es");
+        jsonBody.addProperty("to", "en");
+        jsonBody.add("text", gson.toJsonTree(texts));
+        return post(jsonBody).thenApply(responseBody -> parseBatchResponse(texts, responseBody));
+    }
+
+    private CompletableFuture<String> post(JsonObject jsonBody) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(requestTimeout)
+                    .header("x-rapidapi-key", apiKey)
+                    .header("x-rapidapi-host", apiHost)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(jsonBody), StandardCharsets.UTF_8))
+                    .build();
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                    .thenApply(HttpResponse::body);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private List<String> parseBatchResponse(List<String> texts, String responseBody) {
+        try {
+            JsonElement jsonElement = gson.fromJson(responseBody, JsonElement.class);
+            if (jsonElement != null && jsonElement.isJsonArray() && jsonElement.getAsJsonArray().size() == texts.size()) {
+                JsonArray array = jsonElement.getAsJsonArray();
+                List<String> translations = new ArrayList<>(texts.size());
+                for (int i = 0; i < array.size(); i++) {
+                    JsonElement translation = array.get(i);
+                    translations.add(translation.isJsonPrimitive() ? translation.getAsString() : texts.get(i));
+                }
+                return translations;
+            }
+        } catch (Exception e) {
+            // Not JSON or unexpected format
+        }
+        if (responseBody.contains("message") || responseBody.contains("error")) {
+            // Quota or auth errors are not a sign that arrays are unsupported
+            logger.warn("RapidAPI Error or Message: {}. Translating {} texts one by one.", responseBody, texts.size());
+        } else {
+            logger.warn("Endpoint did not answer an array request with {} translations, sending texts one by one from now on",
+                    texts.size());
+            arraysSupported = false;
+        }
+        return null;
+    }
+
+    private static String parseResponse(String text, String responseBody) {
+        // Check if the response contains error message
+        if (responseBody.contains("message") || responseBody.contains("error")) {
+            logger.warn("RapidAPI Error or Message: {}. Returning original text.", responseBody);
+            return text;
+        }
+
+        // The API might return a JSON string "Translated Text" or an object
+        if (responseBody.startsWith("\"") && responseBody.endsWith("\"")) {
+            return responseBody.substring(1, responseBody.length() - 1);
+        }
+
+        // Fallback for different response formats if needed
+        try {
+            JsonElement jsonElement = gson.fromJson(responseBody, JsonElement.class);
+            if (jsonElement.isJsonPrimitive()) {
+                return jsonElement.getAsString();
+            }
+        } catch (Exception e) {
+            // Not JSON or unexpected format
+        }
+
+        return responseBody;
+    }
+}
@@ -1,130 +1,194 @@
 package com.elpais.automation.utils;
 
 import com.elpais.automation.config.ConfigManager;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.text.Normalizer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Translation service using Rapid Translate Multi Traduction API
 public class TranslationService {
     private static final Logger logger = LogManager.getLogger(TranslationService.class);
-    private static final Map<String, String> translationCache = new HashMap<>();
-    private static final Gson gson = new Gson();
+    private static final Map<String, String> translationCache = new ConcurrentHashMap<>();
+    // Requests on the wire, so concurrent callers for the same text share one request
+    private static final Map<String, CompletableFuture<String>> pendingTranslations = new ConcurrentHashMap<>();
 
     private static final String RAPIDAPI_ENDPOINT = "https://rapid-translate-multi-traduction.p.rapidapi.com/t";
 
+    private static volatile TranslationClient client;
+    private static volatile TranslationBatcher batcher;
+    private static volatile TranslationStore store;
+
     // Translate text from Spanish to English using RapidAPI
     public static String translateToEnglish(String spanishText) {
+        return translateAsync(spanishText).join();
+    }
+
+    // Non-blocking translation; completes with the original text if translation fails
+    public static CompletableFuture<String> translateAsync(String spanishText) {
         if (spanishText == null || spanishText.isEmpty()) {
-            return "";
+            return CompletableFuture.completedFuture("");
         }
 
-        // Check cache first
-        String cacheKey = "es-en-" + spanishText;
-        if (translationCache.containsKey(cacheKey)) {
-            logger.debug("Translation found in cache: {}", spanishText);
-            return translationCache.get(cacheKey);
+        // Check cache first: memory, then the on-disk store shared across runs
+        String cacheKey = cacheKey("es", "en", spanishText);
+        String cached = translationCache.get(cacheKey);
+        if (cached == null && isPersistentCacheEnabled()) {
+            cached = getStore().get(cacheKey);
+            if (cached != null) {
+                translationCache.put(cacheKey, cached);
+            }
         }
-
-        try {
-            String translation = translateUsingRapidAPI(spanishText);
-            translationCache.put(cacheKey, translation);
-            logger.info("Translated: '{}' -> '{}'", spanishText, translation);
-            return translation;
-        } catch (Exception e) {
-            logger.error("Error translating text: {}", spanishText, e);
-            return spanishText; // Return original text if translation fails
+        if (cached != null) {
+            logger.debug("Translation found in cache: {}", spanishText);
+            return CompletableFuture.completedFuture(cached);
         }
-    }
 
-    // Use Rapid Translate Multi Traduction API
-    private static String translateUsingRapidAPI(String text) {
         String apiKey = ConfigManager.get("RAPIDAPI_KEY");
-        String apiHost = ConfigManager.get("RAPIDAPI_HOST", "rapid-translate-multi-traduction.p.rapidapi.com");
-
         if (apiKey == null || apiKey.isEmpty() || apiKey.equals("your_rapidapi_key_here")) {
             logger.warn("RapidAPI Key is not configured. Returning original text.");
-            return text;
+            return CompletableFuture.completedFuture(spanishText);
         }
 
-        CloseableHttpClient httpClient = HttpClients.createDefault();
+        CompletableFuture<String> translation = new CompletableFuture<>();
+        CompletableFuture<String> pending = pendingTranslations.putIfAbsent(cacheKey, translation);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<String> request;
         try {
-            HttpPost httpPost = new HttpPost(RAPIDAPI_ENDPOINT);
-            httpPost.setHeader("x-rapidapi-key", apiKey);
-            httpPost.setHeader("x-rapidapi-host", apiHost);
-            httpPost.setHeader("Content-Type", "application/json");
-
-            JsonObject jsonBody = new JsonObject();
-            jsonBody.addProperty("from", "es");
-            jsonBody.addProperty("to", "en");
-            jsonBody.addProperty("text", text);
-
-            StringEntity entity = new StringEntity(gson.toJson(jsonBody), StandardCharsets.UTF_8);
-            httpPost.setEntity(entity);
-
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                String responseBody = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-                
-                // Check if the response contains error message
-                if (responseBody.contains("message") || responseBody.contains("error")) {
-                    logger.warn("RapidAPI Error or Message: {}. Returning original text.", responseBody);
-                    return text;
+            request = isBatchingEnabled()
+                    ? getBatcher().submit(spanishText)
+                    : getClient().translateAsync(spanishText);
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        // Always settles the shared future and drops the pending entry, whatever the request or the cache does
+        request.whenComplete((translated, error) -> {
+            String result = spanishText;
+            try {
+                if (error != null) {
+                    logger.error("Translation failed for '{}': {}", spanishText, error.toString());
+                } else if (translated != null) {
+                    result = translated;
+                    // The client falls back to the original text on errors; that is not cached
+                    if (!translated.equals(spanishText)) {
+                        translationCache.put(cacheKey, translated);
+                        if (isPersistentCacheEnabled()) {
+                            getStore().put(cacheKey, translated);
+                        }
+                        logger.info("Translated: '{}' -> '{}'", spanishText, translated);
+                    }
                 }
+            } catch (RuntimeException e) {
+                logger.warn("Could not cache translation of '{}': {}", spanishText, e.toString());
+            } finally {
+                pendingTranslations.remove(cacheKey, translation);
+                translation.complete(result);
+            }
+        });
+        return translation;
+    }
 
-                // The API might return a JSON string "Translated Text" or an object
-                if (responseBody.startsWith("\"") && responseBody.endsWith("\"")) {
-                    return responseBody.substring(1, responseBody.length() - 1);
-                }
-                
-                // Fallback for different response formats if needed
-                try {
-                    JsonElement jsonElement = gson.fromJson(responseBody, JsonElement.class);
-                    if (jsonElement.isJsonPrimitive()) {
-                        return jsonElement.getAsString();
-                    }
-                } catch (Exception e) {
-                    // Not JSON or unexpected format
+    // Language pair plus the text in NFC with whitespace collapsed, so the same headline scraped with
+    // different spacing or composed accents maps to one entry
+    static String cacheKey(String from, String to, String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC)
+                .replace('\u00a0', ' ')
+                .replaceAll("\\s+", " ")
+                .trim();
+        return from + "-" + to + ":" + normalized;
+    }
+
+    // Whether translations are also kept on disk across runs
+    private static boolean isPersistentCacheEnabled() {
+        return ConfigManager.getBoolean("feature.persistentTranslationCache", false);
+    }
+
+    private static TranslationStore getStore() {
+        if (store == null) {
+            synchronized (TranslationService.class) {
+                if (store == null) {
+                    String resultsPath = ConfigManager.get("results.path", "./results/articles");
+                    store = new TranslationStore(
+                            Paths.get(ConfigManager.get("translation.cache.path", resultsPath + "/translation-cache.jsonl")),
+                            ConfigManager.getInt("translation.cache.maxEntries", 5000));
                 }
+            }
+        }
+        return store;
+    }
 
-                return responseBody;
+    // Shared client, created on first use from the rapidapi.* and translation.* settings
+    private static TranslationClient getClient() {
+        if (client == null) {
+            synchronized (TranslationService.class) {
+                if (client == null) {
+                    client = new TranslationClient(
+                            ConfigManager.get("rapidapi.url", RAPIDAPI_ENDPOINT),
+                            ConfigManager.get("RAPIDAPI_KEY"),
+                            ConfigManager.get("RAPIDAPI_HOST", "rapid-translate-multi-traduction.p.rapidapi.com"),
+                            ConfigManager.getInt("translation.maxInFlight", 4),
+                            ConfigManager.getLong("translation.connectTimeoutMs", 10000),
+                            ConfigManager.getLong("translation.requestTimeoutMs", 15000));
+                }
             }
-        } catch (Exception e) {
-            logger.error("RapidAPI translation error", e);
-            throw new RuntimeException("Translation failed", e);
-        } finally {
-            try {
-                httpClient.close();
-            } catch (Exception e) {
-                logger.error("Error closing HTTP client", e);
+        }
+        return client;
+    }
+
+    // Whether concurrent translations are coalesced into array requests
+    private static boolean isBatchingEnabled() {
+        return ConfigManager.getBoolean("feature.translationBatching", false);
+    }
+
+    private static TranslationBatcher getBatcher() {
+        if (batcher == null) {
+            synchronized (TranslationService.class) {
+                if (batcher == null) {
+                    batcher = new TranslationBatcher(getClient(),
+                            ConfigManager.getInt("translation.batch.maxItems", 25),
+                            ConfigManager.getInt("translation.batch.maxBytes", 4096),
+                            ConfigManager.getLong("translation.batch.windowMs", 20));
+                }
             }
         }
+        return batcher;
     }
 
-    // Translate multiple texts
+    // Translate multiple texts; all requests are started before waiting, so with batching enabled
+    // they share as few upstream requests as the batch limits allow
     public static Map<String, String> translateMultiple(Map<String, String> textsToTranslate) {
-        Map<String, String> translatedTexts = new HashMap<>();
+        Map<String, CompletableFuture<String>> pending = new HashMap<>();
         for (Map.Entry<String, String> entry : textsToTranslate.entrySet()) {
-            translatedTexts.put(entry.getKey(), translateToEnglish(entry.getValue()));
+            pending.put(entry.getKey(), translateAsync(entry.getValue()));
+        }
+        if (isBatchingEnabled()) {
+            // Nothing else is coming for this call, so do not wait out the window
+            getBatcher().flush();
+        }
+        Map<String, String> translatedTexts = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<String>> entry : pending.entrySet()) {
+            translatedTexts.put(entry.getKey(), entry.getValue().join());
         }
         return translatedTexts;
     }
 
-    // Clear translation cache
+    // Clear the in-memory translation cache; the on-disk store is kept for later runs
     public static void clearCache() {
         translationCache.clear();
         logger.info("Translation cache cleared");
     }
+
+    // Clear the on-disk translation store as well as the in-memory cache
+    public static void clearPersistentCache() {
+        clearCache();
+        if (isPersistentCacheEnabled()) {
+            getStore().clear();
+        }
+    }
 }
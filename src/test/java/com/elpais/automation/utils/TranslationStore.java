@@ -0,0 +1,156 @@
+package com.elpais.automation.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// On-disk translation cache shared across runs: an append-only log of JSON lines ({"k": key,
+// "v": translation}) replayed into an in-memory index on open, the last line for a key winning.
+// The index holds at most maxEntries translations, evicting the least recently used (across runs,
+// the least recently written). The log is compacted to the live entries once it has grown to
+// twice their number. Unreadable lines, such as one cut off by a crash, are skipped.
+public class TranslationStore {
+    private static final Logger logger = LogManager.getLogger(TranslationStore.class);
+    private static final Gson gson = new Gson();
+    // Small logs are not worth rewriting
+    private static final int MIN_COMPACTION_LINES = 100;
+
+    private final Path path;
+    private final int maxEntries;
+    private final Map<String, String> index = new LinkedHashMap<>(16, 0.75f, true);
+    private int logLines;
+    private BufferedWriter log;
+
+    public TranslationStore(Path path, int maxEntries) {
+        this.path = path;
+        this.maxEntries = Math.max(1, maxEntries);
+        load();
+    }
+
+    // Stored translation for the key, or null
+    public synchronized String get(String key) {
+        return index.get(key);
+    }
+
+    // Store a translation and append it to the log
+    public synchronized void put(String key, String translation) {
+        if (translation.equals(index.put(key, translation))) {
+            return;
+        }
+        evictOverflow();
+        try {
+            if (log == null) {
+                log = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            log.write(toLine(key, translation));
+            log.newLine();
+            log.flush();
+            logLines++;
+            if (logLines >= MIN_COMPACTION_LINES && logLines >= 2 * index.size()) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to append to translation store {}: {}", path, e.getMessage());
+        }
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    // Drop all stored translations
+    public synchronized void clear() {
+        index.clear();
+        try {
+            closeLog();
+            Files.deleteIfExists(path);
+            logLines = 0;
+            logger.info("Translation store {} cleared", path);
+        } catch (IOException e) {
+            logger.warn("Failed to clear translation store {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void load() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            if (!Files.exists(path)) {
+                return;
+            }
+            int skipped = 0;
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    logLines++;
+                    try {
+                        JsonObject entry = gson.fromJson(line, JsonObject.class);
+                        index.put(entry.get("k").getAsString(), entry.get("v").getAsString());
+                    } catch (RuntimeException e) {
+                        skipped++;
+                    }
+                }
+            }
+            evictOverflow();
+            logger.info("Loaded {} translations from {} ({} log lines, {} unreadable)",
+                    index.size(), path, logLines, skipped);
+            // Rewriting also drops a partial last line, which the next append would otherwise extend
+            if (skipped > 0 || (logLines >= MIN_COMPACTION_LINES && logLines >= 2 * index.size())) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.warn("Unreadable translation store at {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<String> eldest = index.keySet().iterator();
+        while (index.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    // Rewrite the log with only the live entries, replacing it atomically
+    private void compact() throws IOException {
+        closeLog();
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : index.entrySet()) {
+                writer.write(toLine(entry.getKey(), entry.getValue()));
+                writer.newLine();
+            }
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Compacted translation store {} from {} to {} lines", path, logLines, index.size());
+        logLines = index.size();
+    }
+
+    private void closeLog() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    private static String toLine(String key, String translation) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("k", key);
+        entry.addProperty("v", translation);
+        return gson.toJson(entry);
+    }
+}